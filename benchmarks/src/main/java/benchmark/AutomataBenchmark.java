@@ -0,0 +1,61 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import lexer.Automata;
+import lexer.TraceLevel;
+import org.openjdk.jmh.annotations.*;
+
+// Costo de Automata.transition aislado del resto del analizador: recorre el
+// corpus carácter por carácter y reinicia el autómata en cada espacio o error.
+// Compara la tabla compilada con la implementación de referencia.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class AutomataBenchmark {
+    
+    @Param({ "IDENTIFICADORES", "COMENTARIOS", "ERRORES" })
+    public Corpus corpus;
+    
+    @Param({ "COMPILED", "REFERENCE" })
+    public Automata.Mode modo;
+    
+    private char[] caracteres;
+    private Automata automata;
+    
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Contadores {
+        public long transiciones;
+    }
+    
+    @Setup(Level.Trial)
+    public void preparar() {
+        String texto = corpus.generar(1 << 18);
+        corpus.verificar(texto);
+        caracteres = texto.toCharArray();
+        automata = new Automata(modo);
+        automata.setTraceLevel(TraceLevel.OFF);
+    }
+    
+    @Benchmark
+    public int transition(Contadores contadores) {
+        int estados = 0;
+        automata.reset();
+        for (char c : caracteres) {
+            if (c == ' ' || c == '\n') {
+                automata.reset();
+                continue;
+            }
+            estados += automata.transition(c);
+            if (automata.isErrorState()) {
+                automata.reset();
+            }
+        }
+        contadores.transiciones += caracteres.length;
+        return estados;
+    }
+}
@@ -0,0 +1,137 @@
+package benchmark;
+
+import java.util.Random;
+
+import lexer.Lexer;
+import lexer.TokenBuffer;
+import lexer.TokenType;
+import lexer.TraceLevel;
+
+// Textos sintéticos para los benchmarks. Cada corpus se genera con una semilla
+// fija, así que el mismo tamaño produce siempre el mismo texto y los resultados
+// de distintos commits se pueden comparar.
+public enum Corpus {
+    // Muchos identificadores cortos separados por operadores y espacios
+    IDENTIFICADORES {
+        void agregarLinea(StringBuilder texto, Random azar) {
+            int cantidad = 4 + azar.nextInt(8);
+            for (int i = 0; i < cantidad; i++) {
+                agregarPalabra(texto, azar, 1 + azar.nextInt(12));
+                texto.append(i % 3 == 2 ? " = " : " ");
+            }
+            texto.append(";\n");
+        }
+    },
+    
+    // Enteros de distintos largos (el lexer separa "2.5" en "2" y el error ".5",
+    // así que los decimales medirían el camino de errores)
+    NUMEROS {
+        void agregarLinea(StringBuilder texto, Random azar) {
+            int cantidad = 4 + azar.nextInt(8);
+            for (int i = 0; i < cantidad; i++) {
+                texto.append(azar.nextInt(azar.nextBoolean() ? 1000 : 1000000000));
+                texto.append(i % 2 == 0 ? " + " : " , ");
+            }
+            texto.append('\n');
+        }
+    },
+    
+    // Comentarios de bloque de varias líneas y comentarios de línea largos
+    COMENTARIOS {
+        void agregarLinea(StringBuilder texto, Random azar) {
+            if (azar.nextBoolean()) {
+                texto.append("/*");
+                int lineas = 2 + azar.nextInt(10);
+                for (int i = 0; i < lineas; i++) {
+                    texto.append(' ');
+                    agregarFrase(texto, azar, 60);
+                    texto.append('\n');
+                }
+                texto.append("*/\n");
+            } else {
+                texto.append("// ");
+                agregarFrase(texto, azar, 120);
+                texto.append('\n');
+            }
+        }
+    },
+    
+    // Cadenas largas (sin espacios: en este lenguaje un espacio separa tokens)
+    CADENAS {
+        void agregarLinea(StringBuilder texto, Random azar) {
+            texto.append('"');
+            agregarPalabra(texto, azar, 40 + azar.nextInt(200));
+            texto.append("\" ;\n");
+        }
+    },
+    
+    // Caracteres sin transición mezclados con tokens válidos
+    ERRORES {
+        private static final String INVALIDOS = "@#$!?&|^~`'\\";
+        
+        void agregarLinea(StringBuilder texto, Random azar) {
+            int cantidad = 4 + azar.nextInt(8);
+            for (int i = 0; i < cantidad; i++) {
+                if (azar.nextInt(3) == 0) {
+                    agregarPalabra(texto, azar, 1 + azar.nextInt(6));
+                }
+                texto.append(INVALIDOS.charAt(azar.nextInt(INVALIDOS.length())));
+                if (azar.nextBoolean()) {
+                    texto.append(azar.nextInt(100)).append('.');
+                }
+                texto.append(' ');
+            }
+            texto.append('\n');
+        }
+    };
+    
+    private static final long SEMILLA = 20251018L;
+    private static final String LETRAS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+    
+    abstract void agregarLinea(StringBuilder texto, Random azar);
+    
+    // Genera un texto de al menos "caracteres" caracteres, cortado en un fin de línea
+    public String generar(int caracteres) {
+        Random azar = new Random(SEMILLA + ordinal());
+        StringBuilder texto = new StringBuilder(caracteres + 1024);
+        while (texto.length() < caracteres) {
+            agregarLinea(texto, azar);
+        }
+        return texto.toString();
+    }
+    
+    // Falla si un corpus que debería ser limpio produce tokens ERROR, para que los
+    // benchmarks no terminen midiendo el camino de errores y sugerencias sin notarlo
+    public void verificar(String texto) {
+        if (this == ERRORES) return;
+        
+        Lexer lexer = new Lexer();
+        lexer.setTraceLevel(TraceLevel.OFF);
+        lexer.analyze(texto);
+        TokenBuffer tokens = lexer.getTokenBuffer();
+        int errores = 0;
+        for (int i = 0; i < tokens.size(); i++) {
+            if (tokens.getType(i) == TokenType.ERROR) errores++;
+        }
+        if (errores > 0) {
+            throw new IllegalStateException("El corpus " + this + " produce " + errores
+                + " errores léxicos de " + tokens.size() + " tokens");
+        }
+    }
+    
+    private static void agregarPalabra(StringBuilder texto, Random azar, int longitud) {
+        // Los identificadores empiezan con letra
+        texto.append(LETRAS.charAt(azar.nextInt(52)));
+        for (int i = 1; i < longitud; i++) {
+            texto.append(LETRAS.charAt(azar.nextInt(LETRAS.length())));
+        }
+    }
+    
+    private static void agregarFrase(StringBuilder texto, Random azar, int longitud) {
+        int inicio = texto.length();
+        while (texto.length() - inicio < longitud) {
+            agregarPalabra(texto, azar, 2 + azar.nextInt(8));
+            texto.append(' ');
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import lexer.Lexer;
+import lexer.TraceLevel;
+import org.openjdk.jmh.annotations.*;
+
+// Rendimiento de Lexer.analyze sobre cada corpus. Además de operaciones por
+// segundo, los contadores auxiliares reportan bytes/s (UTF-8) y tokens/s.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+@State(Scope.Benchmark)
+public class LexerBenchmark {
+    
+    @Param({ "IDENTIFICADORES", "NUMEROS", "COMENTARIOS", "CADENAS", "ERRORES" })
+    public Corpus corpus;
+    
+    // Tamaño del texto en caracteres
+    @Param({ "1048576" })
+    public int caracteres;
+    
+    // OFF es el nivel de la línea de comandos y del flujo de tokens, TOKENS el que
+    // usa la interfaz por defecto y FULL_TRANSITIONS el predeterminado del Lexer
+    @Param({ "OFF", "TOKENS", "FULL_TRANSITIONS" })
+    public TraceLevel nivelTraza;
+    
+    private String texto;
+    private long bytesTexto;
+    
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Contadores {
+        public long bytes;
+        public long tokens;
+    }
+    
+    @Setup(Level.Trial)
+    public void preparar() {
+        texto = corpus.generar(caracteres);
+        corpus.verificar(texto);
+        bytesTexto = texto.getBytes(StandardCharsets.UTF_8).length;
+    }
+    
+    @Benchmark
+    public Lexer analyze(Contadores contadores) {
+        Lexer lexer = new Lexer();
+        lexer.setTraceLevel(nivelTraza);
+        lexer.analyze(texto);
+        contadores.bytes += bytesTexto;
+        contadores.tokens += lexer.getTokenBuffer().size();
+        return lexer;
+    }
+}
@@ -0,0 +1,127 @@
+package gui;
+
+import javax.swing.*;
+import javax.swing.text.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Carga de un archivo en un documento nuevo, fuera del EDT. El archivo se lee con
+// NIO en bloques, se decodifica y cada bloque se agrega directo al documento,
+// normalizando los saltos de línea ("\r\n" y "\r" pasan a ser "\n", igual que al
+// leer por líneas). El documento todavía no está en el editor, así que no hay
+// oyentes que avisar, y el texto no se junta antes en otro buffer: en memoria está
+// solo el contenido del documento y un bloque. El EDT solo pone el documento terminado.
+//
+// El progreso (0 a 100) se publica con setProgress y la carga se puede cancelar
+// con cancel() entre bloques; en ese caso el resultado es null.
+class CargadorArchivo extends SwingWorker<StyledDocument, Void> {
+    private static final int TAMANO_BLOQUE = 1 << 20;
+    
+    private final Path ruta;
+    private final AttributeSet atributosParrafo;
+    
+    // Bloque ya normalizado que se inserta en el documento
+    private final StringBuilder bloque = new StringBuilder(TAMANO_BLOQUE);
+    
+    // El último carácter del bloque anterior fue un '\r'
+    private boolean retornoPendiente = false;
+    
+    // "atributosParrafo" se aplica a todos los párrafos (por ejemplo, las tabulaciones)
+    CargadorArchivo(Path ruta, AttributeSet atributosParrafo) {
+        this.ruta = ruta;
+        this.atributosParrafo = atributosParrafo;
+    }
+    
+    @Override
+    protected StyledDocument doInBackground() throws Exception {
+        long tamano = Files.size(ruta);
+        if (tamano > Integer.MAX_VALUE - 16) {
+            throw new IOException("El archivo es demasiado grande (" + tamano + " bytes)");
+        }
+        
+        // Los atributos de párrafo van en el estilo por defecto, del que heredan
+        // todos los párrafos, en vez de asignarse párrafo por párrafo. En UTF-8 hay
+        // a lo sumo un char por byte, así que el contenido no tiene que crecer.
+        StyleContext contexto = new StyleContext();
+        contexto.getStyle(StyleContext.DEFAULT_STYLE).addAttributes(atributosParrafo);
+        DefaultStyledDocument doc = new DefaultStyledDocument(new GapContent((int) tamano + 1), contexto);
+        
+        CharsetDecoder decodificador = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        ByteBuffer bytes = ByteBuffer.allocateDirect(TAMANO_BLOQUE);
+        // Cada byte da a lo sumo un char, así que un bloque decodificado siempre cabe
+        CharBuffer caracteres = CharBuffer.allocate(TAMANO_BLOQUE);
+        
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            long leidos = 0;
+            boolean fin = false;
+            while (!fin) {
+                if (isCancelled()) return null;
+                
+                int n = canal.read(bytes);
+                if (n < 0) {
+                    fin = true;
+                } else {
+                    leidos += n;
+                }
+                bytes.flip();
+                decodificador.decode(bytes, caracteres, fin);
+                bytes.compact();
+                agregar(caracteres, doc);
+                
+                if (tamano > 0) {
+                    setProgress((int) (Math.min(leidos, tamano) * 100 / tamano));
+                }
+            }
+            decodificador.flush(caracteres);
+            agregar(caracteres, doc);
+        }
+        
+        if (isCancelled()) return null;
+        setProgress(100);
+        return doc;
+    }
+    
+    // Agrega los caracteres decodificados al final del documento, convirtiendo
+    // "\r\n" y "\r" en "\n"
+    private void agregar(CharBuffer caracteres, Document doc) throws BadLocationException {
+        caracteres.flip();
+        char[] arreglo = caracteres.array();
+        int fin = caracteres.limit();
+        int inicio = 0;
+        
+        if (retornoPendiente && fin > 0) {
+            retornoPendiente = false;
+            if (arreglo[0] == '\n') inicio = 1; // Segunda mitad de un "\r\n" ya convertido
+        }
+        
+        // Los tramos sin '\r' se copian enteros
+        int tramo = inicio;
+        for (int i = inicio; i < fin; i++) {
+            if (arreglo[i] != '\r') continue;
+            bloque.append(arreglo, tramo, i - tramo).append('\n');
+            if (i + 1 < fin) {
+                if (arreglo[i + 1] == '\n') i++;
+            } else {
+                retornoPendiente = true;
+            }
+            tramo = i + 1;
+        }
+        bloque.append(arreglo, tramo, fin - tramo);
+        caracteres.clear();
+        
+        if (bloque.length() > 0) {
+            doc.insertString(doc.getLength(), bloque.toString(), null);
+            bloque.setLength(0);
+        }
+    }
+}
@@ -1,31 +1,92 @@
 package gui;
 
 import javax.swing.*;
+import javax.swing.event.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.util.Arrays;
 import lexer.*;
 
 public class DepuracionDialog extends JDialog {
     private JTextArea textArea;
-    private JTextArea logArea;
+    private JList<String> logList;
+    private RegistroCircular registro;
     private JButton btnSiguiente, btnAnterior, btnPausar, btnReiniciar, btnEjecutarTodo;
     private JLabel lblEstado, lblCaracter, lblLexema;
+    private JComboBox<String> cmbParadaEstado;
+    private JComboBox<Object> cmbParadaToken;
+    private JTextField txtParadaLinea, txtParadaCaracter;
     
     private Automata automata;
     private String texto;
+    private LineIndex indiceLineas;
     private int posicionActual;
     private boolean pausado;
-    private java.util.List<String> historial;
+    
+    // Paso automático (Continuar): un solo timer, que se detiene al pausar
+    private Timer timerAutomatico;
+    
+    // Historial de pasos en arreglos paralelos: para cada paso, la posición, el
+    // estado del autómata y el largo del lexema antes de procesar el carácter.
+    // Volver a un paso es O(1): no se repite el recorrido desde el inicio.
+    private int[] historialPosiciones = new int[256];
+    private int[] historialEstados = new int[256];
+    private int[] historialLongitudes = new int[256];
+    private int historialCantidad;
     private int historialIndex;
     
+    // Ejecución rápida en curso (null si no hay)
+    private SwingWorker<ResultadoEjecucion, Void> ejecucion;
+    // Se detiene con esta bandera y no con cancel(), para que done() llegue recién
+    // cuando el trabajador dejó de modificar el autómata y el historial
+    private volatile boolean detenerEjecucion;
+    
+    // Estados que se pueden elegir como punto de parada, en el orden del combo
+    private static final int[] ESTADOS = {
+        Automata.STATE_INITIAL, Automata.STATE_IDENTIFIER, Automata.STATE_INTEGER,
+        Automata.STATE_DECIMAL_POINT, Automata.STATE_DECIMAL, Automata.STATE_STRING,
+        Automata.STATE_OPERATOR, Automata.STATE_SLASH, Automata.STATE_LINE_COMMENT,
+        Automata.STATE_BLOCK_COMMENT, Automata.STATE_BLOCK_COMMENT_END, Automata.STATE_ERROR
+    };
+    
+    // Pasos que se muestran en el log al terminar una ejecución rápida
+    private static final int PASOS_EN_LOG = 200;
+    
+    // Mensajes que conserva el log; los más viejos se descartan
+    private static final int CAPACIDAD_LOG = 10000;
+    
+    // Largo máximo del lexema en los mensajes del log (se muestra el final)
+    private static final int LARGO_LEXEMA_LOG = 60;
+    
+    // Condiciones de parada de la ejecución rápida; un campo en -1 (o null) no se usa
+    private static class PuntosParada {
+        int estado = -1;
+        TokenType tipoToken;
+        int inicioLinea = -1;
+        int caracter = -1;
+    }
+    
+    // Lo que la ejecución rápida publica al terminar: el motivo, la cantidad de
+    // pasos y los mensajes de los últimos pasos (el estado queda en los campos)
+    private static class ResultadoEjecucion {
+        String motivo;
+        long pasos;
+        long omitidos;
+        java.util.List<String> mensajes = new java.util.ArrayList<>();
+    }
+    
     public DepuracionDialog(JFrame parent, String texto) {
         super(parent, "Modo Depuración - Análisis Paso a Paso", true);
         this.texto = texto;
+        this.indiceLineas = new LineIndex(texto);
         this.automata = new Automata();
+        this.automata.setTraceLevel(TraceLevel.OFF); // El depurador arma su propio log
         this.posicionActual = 0;
         this.pausado = true;
-        this.historial = new java.util.ArrayList<>();
+        this.historialCantidad = 0;
         this.historialIndex = -1;
+        this.timerAutomatico = new Timer(500, e -> ejecutarAutomatico()); // 500ms entre pasos
+        this.timerAutomatico.setRepeats(false);
         
         initComponents();
         setupLayout();
@@ -43,19 +104,44 @@ public class DepuracionDialog extends JDialog {
         textArea.setEditable(false);
         textArea.setBackground(new Color(240, 240, 240));
         
-        // Área de log de depuración
-        logArea = new JTextArea();
-        logArea.setFont(new Font("Consolas", Font.PLAIN, 12));
-        logArea.setEditable(false);
-        logArea.setBackground(Color.BLACK);
-        logArea.setForeground(Color.GREEN);
+        // Log de depuración: lista sobre un registro de capacidad fija; solo se
+        // dibujan las filas visibles (el prototipo fija el tamaño de las celdas)
+        registro = new RegistroCircular(CAPACIDAD_LOG);
+        logList = new JList<>(registro);
+        logList.setFont(new Font("Consolas", Font.PLAIN, 12));
+        logList.setBackground(Color.BLACK);
+        logList.setForeground(Color.GREEN);
+        logList.setPrototypeCellValue(String.format("%150s", ""));
+        
+        // Auto-scroll al final cuando llega un lote de mensajes
+        registro.addListDataListener(new ListDataListener() {
+            public void intervalAdded(ListDataEvent e) {
+                logList.ensureIndexIsVisible(e.getIndex1());
+            }
+            public void intervalRemoved(ListDataEvent e) { }
+            public void contentsChanged(ListDataEvent e) { }
+        });
         
         // Botones
         btnSiguiente = new JButton("Siguiente Carácter (F8)");
         btnAnterior = new JButton("Anterior (F7)");
         btnPausar = new JButton("Pausar");
         btnReiniciar = new JButton("Reiniciar (F5)");
-        btnEjecutarTodo = new JButton("Ejecutar Todo (F9)");
+        btnEjecutarTodo = new JButton("Ejecutar hasta parada (F9)");
+        
+        // Puntos de parada de la ejecución rápida
+        cmbParadaEstado = new JComboBox<>();
+        cmbParadaEstado.addItem("(ninguno)");
+        for (int estado : ESTADOS) {
+            cmbParadaEstado.addItem(obtenerNombreEstado(estado));
+        }
+        cmbParadaToken = new JComboBox<>();
+        cmbParadaToken.addItem("(ninguno)");
+        for (TokenType tipo : TokenType.values()) {
+            cmbParadaToken.addItem(tipo);
+        }
+        txtParadaLinea = new JTextField(5);
+        txtParadaCaracter = new JTextField(2);
         
         // Configurar colores de botones
         btnSiguiente.setBackground(new Color(0, 100, 0));
@@ -100,10 +186,23 @@ public class DepuracionDialog extends JDialog {
         panelEstado.add(lblCaracter);
         panelEstado.add(lblLexema);
         
+        // === PANEL PUNTOS DE PARADA ===
+        JPanel panelParadas = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        panelParadas.setBorder(BorderFactory.createTitledBorder("Puntos de Parada (Ejecutar hasta parada)"));
+        panelParadas.add(new JLabel("Estado:"));
+        panelParadas.add(cmbParadaEstado);
+        panelParadas.add(new JLabel("Token:"));
+        panelParadas.add(cmbParadaToken);
+        panelParadas.add(new JLabel("Línea:"));
+        panelParadas.add(txtParadaLinea);
+        panelParadas.add(new JLabel("Carácter:"));
+        panelParadas.add(txtParadaCaracter);
+        
         // === PANEL SUPERIOR COMBINADO ===
         JPanel panelSuperior = new JPanel(new BorderLayout());
         panelSuperior.add(panelBotones, BorderLayout.NORTH);
         panelSuperior.add(panelEstado, BorderLayout.CENTER);
+        panelSuperior.add(panelParadas, BorderLayout.SOUTH);
         
         // === PANEL TEXTO ENTRADA ===
         JPanel panelTexto = new JPanel(new BorderLayout());
@@ -113,7 +212,7 @@ public class DepuracionDialog extends JDialog {
         // === PANEL LOG ===
         JPanel panelLog = new JPanel(new BorderLayout());
         panelLog.setBorder(BorderFactory.createTitledBorder("Log de Depuración"));
-        panelLog.add(new JScrollPane(logArea), BorderLayout.CENTER);
+        panelLog.add(new JScrollPane(logList), BorderLayout.CENTER);
         
         // === DIVISOR PRINCIPAL ===
         JSplitPane splitPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT, panelTexto, panelLog);
@@ -183,42 +282,34 @@ public class DepuracionDialog extends JDialog {
     }
     
     private void siguientePaso() {
+        if (ejecucion != null) return; // El trabajador está usando el autómata
+        
+        // Saltar espacios, tabs y retornos seguidos de una vez, con un solo mensaje
+        String salto = saltarBlancos();
+        if (salto != null) {
+            agregarLog(salto);
+        }
+        
         if (posicionActual >= texto.length()) {
             agregarLog("=== ANÁLISIS COMPLETADO ===");
             pausado = true;
+            actualizarEstado();
             actualizarBotones();
             return;
         }
         
         char caracter = texto.charAt(posicionActual);
         
-        // Saltar espacios y tabs en depuración
-        if (caracter == ' ' || caracter == '\t' || caracter == '\r') {
-            agregarLog("Saltando carácter: '" + (caracter == ' ' ? "ESPACIO" : "TAB") + "'");
-            posicionActual++;
-            siguientePaso(); // Recursivo para saltar múltiples espacios
-            return;
-        }
-        
-        // Guardar estado actual en historial
-        guardarEnHistorial();
-        
-        // Procesar carácter
+        // Procesar carácter (guarda el estado actual en el historial)
         int estadoAnterior = automata.getCurrentState();
-        int nuevoEstado = automata.transition(caracter);
+        int nuevoEstado = procesarCaracter(caracter);
         
         // Mostrar información en log
-        String mensaje = String.format("Carácter: '%c' | Estado: %s → %s | Lexema: '%s'", 
-            caracter, 
-            obtenerNombreEstado(estadoAnterior),
-            obtenerNombreEstado(nuevoEstado),
-            automata.getCurrentLexeme());
-        agregarLog(mensaje);
+        agregarLog(mensajePaso(caracter, estadoAnterior, nuevoEstado,
+            automata.getCurrentLexeme(), automata.getLexemeLength()));
         
         // Resaltar carácter actual en el texto
-        resaltarCaracterActual();
-        
-        posicionActual++;
+        resaltarCaracter(posicionActual - 1);
         actualizarEstado();
         
         // Si llegamos a un estado final o error, pausar automáticamente
@@ -233,7 +324,38 @@ public class DepuracionDialog extends JDialog {
         }
     }
     
+    // Avanza sobre los espacios, tabs y retornos seguidos desde la posición actual
+    // (sin recursión, sin importar cuántos sean) y devuelve el mensaje que los
+    // resume, o null si no había ninguno
+    private String saltarBlancos() {
+        int espacios = 0, tabs = 0, retornos = 0;
+        while (posicionActual < texto.length()) {
+            char caracter = texto.charAt(posicionActual);
+            if (caracter == ' ') {
+                espacios++;
+            } else if (caracter == '\t') {
+                tabs++;
+            } else if (caracter == '\r') {
+                retornos++;
+            } else {
+                break;
+            }
+            posicionActual++;
+        }
+        return mensajeSaltos(espacios, tabs, retornos);
+    }
+    
+    // Un paso sobre un carácter que no se salta: historial, transición y avance.
+    // No toca Swing, así que también lo usa la ejecución rápida.
+    private int procesarCaracter(char caracter) {
+        guardarEnHistorial();
+        int nuevoEstado = automata.transition(caracter);
+        posicionActual++;
+        return nuevoEstado;
+    }
+    
     private void pasoAnterior() {
+        if (ejecucion != null) return;
         if (historialIndex > 0) {
             historialIndex--;
             restaurarDesdeHistorial();
@@ -245,20 +367,26 @@ public class DepuracionDialog extends JDialog {
     }
     
     private void togglePausa() {
+        if (ejecucion != null) {
+            // Detener la ejecución rápida; publica el estado al que llegó
+            detenerEjecucion = true;
+            return;
+        }
         pausado = !pausado;
         actualizarBotones();
-        if (!pausado) {
+        if (pausado) {
+            timerAutomatico.stop();
+        } else {
             ejecutarAutomatico();
         }
     }
     
     private void ejecutarAutomatico() {
+        if (ejecucion != null) return;
         if (!pausado && posicionActual < texto.length()) {
             siguientePaso();
             if (!pausado) {
-                Timer timer = new Timer(500, e -> ejecutarAutomatico()); // 500ms entre pasos
-                timer.setRepeats(false);
-                timer.start();
+                timerAutomatico.restart();
             }
         } else {
             pausado = true;
@@ -266,30 +394,188 @@ public class DepuracionDialog extends JDialog {
         }
     }
     
+    // Ejecuta sin pausas hasta un punto de parada o el final del texto. El autómata
+    // avanza en un hilo trabajador sin tocar Swing ni armar mensajes por paso; al
+    // terminar se muestran el estado alcanzado y el log de los últimos pasos.
+    // Solo arranca con el depurador en pausa: el paso automático usa el mismo autómata.
     private void ejecutarTodo() {
+        if (ejecucion != null || !pausado || posicionActual >= texto.length()) return;
+        PuntosParada paradas;
+        try {
+            paradas = leerPuntosParada();
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, ex.getMessage(), "Punto de parada", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        
         pausado = false;
+        detenerEjecucion = false;
+        ejecucion = new SwingWorker<ResultadoEjecucion, Void>() {
+            @Override
+            protected ResultadoEjecucion doInBackground() {
+                return ejecutarHasta(paradas);
+            }
+            
+            @Override
+            protected void done() {
+                terminarEjecucion(this);
+            }
+        };
         actualizarBotones();
-        new Thread(() -> {
-            while (!pausado && posicionActual < texto.length()) {
-                siguientePaso();
-                try {
-                    Thread.sleep(100); // 100ms entre pasos
-                } catch (InterruptedException e) {
+        agregarLog("=== EJECUTANDO HASTA PUNTO DE PARADA ===");
+        ejecucion.execute();
+    }
+    
+    private PuntosParada leerPuntosParada() {
+        PuntosParada paradas = new PuntosParada();
+        if (cmbParadaEstado.getSelectedIndex() > 0) {
+            paradas.estado = ESTADOS[cmbParadaEstado.getSelectedIndex() - 1];
+        }
+        if (cmbParadaToken.getSelectedIndex() > 0) {
+            paradas.tipoToken = (TokenType) cmbParadaToken.getSelectedItem();
+        }
+        
+        String linea = txtParadaLinea.getText().trim();
+        if (!linea.isEmpty()) {
+            try {
+                paradas.inicioLinea = indiceLineas.getLineStart(Integer.parseInt(linea));
+            } catch (NumberFormatException | IndexOutOfBoundsException ex) {
+                throw new IllegalArgumentException("Línea inválida: " + linea
+                    + " (el texto tiene " + indiceLineas.getLineCount() + " líneas)");
+            }
+        }
+        
+        String caracter = txtParadaCaracter.getText();
+        if (caracter.length() > 1) {
+            throw new IllegalArgumentException("Indique un solo carácter de parada");
+        }
+        if (caracter.length() == 1) {
+            paradas.caracter = caracter.charAt(0);
+        }
+        return paradas;
+    }
+    
+    // === HILO TRABAJADOR (ejecución rápida) ===
+    
+    private ResultadoEjecucion ejecutarHasta(PuntosParada paradas) {
+        ResultadoEjecucion resultado = new ResultadoEjecucion();
+        
+        // Últimos pasos como enteros (anterior = -1 en los espacios saltados); los
+        // mensajes se arman solo para estos al terminar
+        int[] caracteres = new int[PASOS_EN_LOG];
+        int[] anteriores = new int[PASOS_EN_LOG];
+        int[] nuevos = new int[PASOS_EN_LOG];
+        int[] longitudes = new int[PASOS_EN_LOG];
+        long pasos = 0;
+        
+        int longitud = texto.length();
+        while (resultado.motivo == null) {
+            if (posicionActual >= longitud) {
+                resultado.motivo = "=== ANÁLISIS COMPLETADO ===";
+                break;
+            }
+            char caracter = texto.charAt(posicionActual);
+            
+            // Las paradas de posición se revisan antes del carácter, salvo en el primer
+            // paso (para poder continuar desde donde se detuvo)
+            if (pasos > 0) {
+                if (paradas.caracter == caracter) {
+                    resultado.motivo = ">>> PUNTO DE PARADA - Carácter '" + caracter + "'";
+                    break;
+                }
+                if (posicionActual == paradas.inicioLinea) {
+                    resultado.motivo = ">>> PUNTO DE PARADA - Línea " + indiceLineas.getRow(posicionActual);
                     break;
                 }
             }
-            pausado = true;
-            SwingUtilities.invokeLater(this::actualizarBotones);
-        }).start();
+            if ((pasos & 0xFFF) == 0 && detenerEjecucion) {
+                resultado.motivo = ">>> EJECUCIÓN DETENIDA";
+                break;
+            }
+            
+            int k = (int) (pasos % PASOS_EN_LOG);
+            caracteres[k] = caracter;
+            pasos++;
+            
+            if (caracter == ' ' || caracter == '\t' || caracter == '\r') {
+                anteriores[k] = -1;
+                posicionActual++;
+                continue;
+            }
+            
+            anteriores[k] = automata.getCurrentState();
+            nuevos[k] = procesarCaracter(caracter);
+            longitudes[k] = automata.getLexemeLength();
+            
+            if (nuevos[k] == paradas.estado) {
+                resultado.motivo = ">>> PUNTO DE PARADA - Estado " + obtenerNombreEstado(nuevos[k]);
+            } else if (paradas.tipoToken != null && automata.isFinalState()
+                    && automata.getTokenType() == paradas.tipoToken) {
+                resultado.motivo = ">>> PUNTO DE PARADA - Token " + paradas.tipoToken;
+            }
+        }
+        
+        // Mensajes de los últimos pasos (los blancos seguidos van en un solo mensaje);
+        // cada lexema es un prefijo del lexema actual
+        String lexema = automata.getCurrentLexeme();
+        long primero = Math.max(0, pasos - PASOS_EN_LOG);
+        int espacios = 0, tabs = 0, retornos = 0;
+        for (long paso = primero; paso <= pasos; paso++) {
+            int k = (int) (paso % PASOS_EN_LOG);
+            if (paso < pasos && anteriores[k] < 0) {
+                if (caracteres[k] == ' ') espacios++;
+                else if (caracteres[k] == '\t') tabs++;
+                else retornos++;
+                continue;
+            }
+            
+            String salto = mensajeSaltos(espacios, tabs, retornos);
+            if (salto != null) {
+                resultado.mensajes.add(salto);
+                espacios = tabs = retornos = 0;
+            }
+            if (paso < pasos) {
+                resultado.mensajes.add(mensajePaso((char) caracteres[k], anteriores[k], nuevos[k], lexema, longitudes[k]));
+            }
+        }
+        resultado.pasos = pasos;
+        resultado.omitidos = primero;
+        return resultado;
+    }
+    
+    // === EDT ===
+    
+    private void terminarEjecucion(SwingWorker<ResultadoEjecucion, Void> terminada) {
+        ejecucion = null;
+        pausado = true;
+        
+        try {
+            ResultadoEjecucion resultado = terminada.get();
+            if (resultado.omitidos > 0) {
+                agregarLog("... (" + resultado.omitidos + " pasos anteriores sin mostrar)");
+            }
+            for (String mensaje : resultado.mensajes) {
+                agregarLog(mensaje);
+            }
+            agregarLog(resultado.motivo + " (" + resultado.pasos + " pasos)");
+        } catch (InterruptedException | java.util.concurrent.ExecutionException ex) {
+            agregarLog(">>> ERROR EN LA EJECUCIÓN: " + ex.getMessage());
+        }
+        
+        resaltarCaracter(posicionActual - 1);
+        actualizarEstado();
+        actualizarBotones();
     }
     
     private void reiniciar() {
+        if (ejecucion != null) return;
+        timerAutomatico.stop();
         automata.reset();
         posicionActual = 0;
         pausado = true;
-        historial.clear();
+        historialCantidad = 0;
         historialIndex = -1;
-        logArea.setText("");
+        registro.clear();
         textArea.setSelectionStart(0);
         textArea.setSelectionEnd(0);
         actualizarEstado();
@@ -298,42 +584,41 @@ public class DepuracionDialog extends JDialog {
     }
     
     private void guardarEnHistorial() {
-        // Guardar snapshot del estado actual
-        String snapshot = posicionActual + "|" + 
-                         automata.getCurrentState() + "|" + 
-                         automata.getCurrentLexeme();
-        
         // Limpiar historial futuro si retrocedimos y avanzamos de nuevo
-        if (historialIndex < historial.size() - 1) {
-            historial = historial.subList(0, historialIndex + 1);
+        historialCantidad = historialIndex + 1;
+        
+        if (historialCantidad == historialPosiciones.length) {
+            int nuevoTamano = historialCantidad * 2;
+            historialPosiciones = Arrays.copyOf(historialPosiciones, nuevoTamano);
+            historialEstados = Arrays.copyOf(historialEstados, nuevoTamano);
+            historialLongitudes = Arrays.copyOf(historialLongitudes, nuevoTamano);
         }
         
-        historial.add(snapshot);
-        historialIndex = historial.size() - 1;
+        // Guardar snapshot del estado actual
+        historialPosiciones[historialCantidad] = posicionActual;
+        historialEstados[historialCantidad] = automata.getCurrentState();
+        historialLongitudes[historialCantidad] = automata.getLexemeLength();
+        historialIndex = historialCantidad++;
     }
     
     private void restaurarDesdeHistorial() {
-        if (historialIndex >= 0 && historialIndex < historial.size()) {
-            String snapshot = historial.get(historialIndex);
-            String[] partes = snapshot.split("\\|");
-            
-            posicionActual = Integer.parseInt(partes[0]);
-            
-            // Recrear el autómata desde el inicio
-            automata.reset();
-            for (int i = 0; i < posicionActual; i++) {
-                char c = texto.charAt(i);
-                if (c != ' ' && c != '\t' && c != '\r') {
-                    automata.transition(c);
-                }
-            }
+        if (historialIndex >= 0 && historialIndex < historialCantidad) {
+            posicionActual = historialPosiciones[historialIndex];
+            automata.restore(historialEstados[historialIndex], historialLongitudes[historialIndex]);
         }
     }
     
     private void resaltarCaracterActual() {
-        if (posicionActual < texto.length()) {
-            textArea.setSelectionStart(posicionActual);
-            textArea.setSelectionEnd(posicionActual + 1);
+        resaltarCaracter(posicionActual);
+    }
+    
+    private void resaltarCaracter(int posicion) {
+        if (posicion < 0) {
+            textArea.setSelectionStart(0);
+            textArea.setSelectionEnd(0);
+        } else if (posicion < texto.length()) {
+            textArea.setSelectionStart(posicion);
+            textArea.setSelectionEnd(posicion + 1);
             textArea.setSelectionColor(Color.YELLOW);
         } else {
             textArea.setSelectionStart(texto.length());
@@ -350,7 +635,8 @@ public class DepuracionDialog extends JDialog {
                 (caracter == ' ' ? "ESPACIO" : 
                  caracter == '\t' ? "TAB" : 
                  caracter == '\n' ? "SALTO_LÍNEA" : 
-                 String.valueOf(caracter)) + "'");
+                 String.valueOf(caracter)) + "' (Fila " + indiceLineas.getRow(posicionActual) +
+                ", Columna " + indiceLineas.getColumn(posicionActual) + ")");
         } else {
             lblCaracter.setText("Carácter actual: FIN DEL TEXTO");
         }
@@ -367,9 +653,37 @@ public class DepuracionDialog extends JDialog {
     }
     
     private void agregarLog(String mensaje) {
-        logArea.append(mensaje + "\n");
-        // Auto-scroll al final
-        logArea.setCaretPosition(logArea.getDocument().getLength());
+        // Una fila por línea del mensaje (por ejemplo, un lexema con saltos de línea)
+        for (String linea : mensaje.split("\n", -1)) {
+            registro.agregar(linea);
+        }
+    }
+    
+    private String mensajePaso(char caracter, int estadoAnterior, int nuevoEstado, String lexema, int longitud) {
+        // Lexema del paso (un prefijo de "lexema"); si es muy largo se muestra su final
+        String lexemaPaso = longitud > LARGO_LEXEMA_LOG
+            ? "..." + lexema.substring(longitud - LARGO_LEXEMA_LOG, longitud)
+            : lexema.substring(0, longitud);
+        return String.format("Carácter: '%c' | Estado: %s → %s | Lexema: '%s'", 
+            caracter, 
+            obtenerNombreEstado(estadoAnterior),
+            obtenerNombreEstado(nuevoEstado),
+            lexemaPaso);
+    }
+    
+    // Resume una serie de blancos saltados; null si no hubo ninguno
+    private String mensajeSaltos(int espacios, int tabs, int retornos) {
+        int total = espacios + tabs + retornos;
+        if (total == 0) return null;
+        if (total == 1) {
+            return "Saltando carácter: '" + (espacios == 1 ? "ESPACIO" : tabs == 1 ? "TAB" : "RETORNO") + "'";
+        }
+        
+        StringBuilder detalle = new StringBuilder();
+        if (espacios > 0) detalle.append(espacios).append(" ESPACIO");
+        if (tabs > 0) detalle.append(detalle.length() > 0 ? ", " : "").append(tabs).append(" TAB");
+        if (retornos > 0) detalle.append(detalle.length() > 0 ? ", " : "").append(retornos).append(" RETORNO");
+        return "Saltando " + total + " caracteres en blanco (" + detalle + ")";
     }
     
     private String obtenerNombreEstado(int estado) {
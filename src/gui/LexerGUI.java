@@ -6,15 +6,30 @@ import javax.swing.event.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 
 public class LexerGUI extends JFrame {
     // Componentes de la interfaz
     private JTextPane textPane;
-    private JTextArea resultArea;
+    private JTable tablaTokens;
+    private JList<String> listaErrores, listaLog;
+    private JTable tablaLexemas;
+    private JTabbedPane resultTabs;
     private JLabel statusLabel;
+    private JProgressBar barraProgreso;
     private JButton analyzeBtn, loadBtn, saveBtn, searchBtn, debugBtn, exportReportBtn, diagramBtn;
     private JTextField searchField;
-    private Timer timerResaltado;
+    private JComboBox<lexer.TraceLevel> cmbDetalleLog;
+    private ResaltadorSintaxis resaltador;
+    private AttributeSet atributosParrafo;
+    private CargadorArchivo cargaEnCurso;
+    private SwingWorker<lexer.Lexer, Void> analisisEnCurso;
+    private lexer.Lexer ultimoAnalisis;
     
     public LexerGUI() {
         initComponents();
@@ -39,18 +54,27 @@ public class LexerGUI extends JFrame {
         }
         TabSet tabSet = new TabSet(tabs);
         StyleContext sc = StyleContext.getDefaultStyleContext();
-        AttributeSet aset = sc.addAttribute(SimpleAttributeSet.EMPTY, StyleConstants.TabSet, tabSet);
-        textPane.setParagraphAttributes(aset, false);
-        
-        // Área de texto para resultados
-        resultArea = new JTextArea();
-        resultArea.setFont(new Font("Consolas", Font.PLAIN, 12));
-        resultArea.setEditable(false);
-        resultArea.setBackground(new Color(240, 240, 240));
+        atributosParrafo = sc.addAttribute(SimpleAttributeSet.EMPTY, StyleConstants.TabSet, tabSet);
+        textPane.setParagraphAttributes(atributosParrafo, false);
+        
+        // Resultados: tablas y listas que solo dibujan las filas visibles, así el
+        // tamaño del análisis no afecta al EDT
+        Font fuenteResultados = new Font("Consolas", Font.PLAIN, 12);
+        tablaTokens = new JTable(new ModeloTablaTokens(new lexer.TokenBuffer()));
+        tablaTokens.setFont(fuenteResultados);
+        tablaTokens.setFillsViewportHeight(true);
+        tablaLexemas = new JTable();
+        tablaLexemas.setFont(fuenteResultados);
+        tablaLexemas.setFillsViewportHeight(true);
+        listaErrores = crearListaResultados(fuenteResultados);
+        listaLog = crearListaResultados(fuenteResultados);
         
         // Etiqueta de estado
         statusLabel = new JLabel("Listo - Fila: 1, Columna: 1");
         statusLabel.setBorder(BorderFactory.createEtchedBorder());
+        barraProgreso = new JProgressBar(0, 100);
+        barraProgreso.setStringPainted(true);
+        barraProgreso.setVisible(false);
         
         // Botones
         analyzeBtn = new JButton("Analizar");
@@ -62,6 +86,12 @@ public class LexerGUI extends JFrame {
         diagramBtn = new JButton("Diagrama");
         searchField = new JTextField(15);
         
+        // Detalle del log del análisis: las transiciones completas ocupan mucha
+        // memoria en textos grandes, así que se piden solo cuando hacen falta
+        cmbDetalleLog = new JComboBox<>(lexer.TraceLevel.values());
+        cmbDetalleLog.setSelectedItem(lexer.TraceLevel.TOKENS);
+        cmbDetalleLog.setToolTipText("Detalle del log del análisis");
+        
         // Configurar colores de botones
         analyzeBtn.setBackground(new Color(70, 130, 180));
         analyzeBtn.setForeground(Color.WHITE);
@@ -74,9 +104,8 @@ public class LexerGUI extends JFrame {
         diagramBtn.setBackground(new Color(128, 0, 128));
         diagramBtn.setForeground(Color.WHITE);
         
-        // Timer para resaltado en tiempo real
-        timerResaltado = new Timer(500, e -> aplicarResaltadoSintaxis());
-        timerResaltado.setRepeats(false); // Solo ejecutar una vez después del delay
+        // Resaltado en tiempo real (análisis en segundo plano)
+        resaltador = new ResaltadorSintaxis(textPane);
     }
     
     private void setupLayout() {
@@ -101,6 +130,8 @@ public class LexerGUI extends JFrame {
         JPanel row2 = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 2));
         row2.setBackground(new Color(230, 230, 230));
         row2.add(analyzeBtn);
+        row2.add(new JLabel("Log:"));
+        row2.add(cmbDetalleLog);
         row2.add(debugBtn);
         row2.add(exportReportBtn);
         row2.add(diagramBtn);
@@ -128,9 +159,12 @@ public class LexerGUI extends JFrame {
         // Panel inferior (resultados)
         JPanel resultPanel = new JPanel(new BorderLayout());
         resultPanel.setBorder(BorderFactory.createTitledBorder("Resultados del Análisis"));
-        JScrollPane resultScroll = new JScrollPane(resultArea);
-        resultScroll.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_ALWAYS);
-        resultPanel.add(resultScroll, BorderLayout.CENTER);
+        resultTabs = new JTabbedPane();
+        resultTabs.addTab("Tokens", new JScrollPane(tablaTokens));
+        resultTabs.addTab("Errores", new JScrollPane(listaErrores));
+        resultTabs.addTab("Recuento de lexemas", new JScrollPane(tablaLexemas));
+        resultTabs.addTab("Log", new JScrollPane(listaLog));
+        resultPanel.add(resultTabs, BorderLayout.CENTER);
         
         // Divisor
         JSplitPane splitPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT, inputPanel, resultPanel);
@@ -140,15 +174,15 @@ public class LexerGUI extends JFrame {
         // ===== AGREGAR TODO A LA VENTANA =====
         add(topPanel, BorderLayout.NORTH);
         add(splitPane, BorderLayout.CENTER);
-        add(statusLabel, BorderLayout.SOUTH);
+        JPanel statusPanel = new JPanel(new BorderLayout());
+        statusPanel.add(statusLabel, BorderLayout.CENTER);
+        statusPanel.add(barraProgreso, BorderLayout.EAST);
+        add(statusPanel, BorderLayout.SOUTH);
     }
     
     private void setupEvents() {
-        // Botón cargar archivo
-        loadBtn.addActionListener(e -> {
-            loadFile();
-            SwingUtilities.invokeLater(() -> aplicarResaltadoSintaxis());
-        });
+        // Botón cargar archivo (el resaltado se pide solo al poner el documento nuevo)
+        loadBtn.addActionListener(e -> loadFile());
         
         // Botón guardar archivo
         saveBtn.addActionListener(e -> saveFile());
@@ -174,174 +208,25 @@ public class LexerGUI extends JFrame {
         // Actualizar posición del cursor en tiempo real
         textPane.addCaretListener(e -> updateCursorPosition());
         
-        // Resaltado en tiempo real
-        textPane.getDocument().addDocumentListener(new DocumentListener() {
-            public void insertUpdate(DocumentEvent e) {
-                timerResaltado.restart();
-            }
-            public void removeUpdate(DocumentEvent e) {
-                timerResaltado.restart();
-            }
-            public void changedUpdate(DocumentEvent e) {
-                timerResaltado.restart();
-            }
-        });
-        
         // Atajos de teclado
         setupKeyboardShortcuts();
     }
     
     private void aplicarResaltadoSintaxis() {
-        try {
-            String texto = textPane.getText();
-            if (texto.isEmpty()) return;
-            
-            // Crear analizador para obtener tokens
-            lexer.Lexer lexer = new lexer.Lexer();
-            lexer.analyze(texto);
-            
-            // Aplicar resaltado
-            aplicarColoresPorTokens(lexer.getTokens());
-            
-        } catch (Exception ex) {
-            // Silenciar errores durante el resaltado en tiempo real
-            System.out.println("Error en resaltado: " + ex.getMessage());
-        }
-    }
-    
-    private void aplicarColoresPorTokens(java.util.List<lexer.Token> tokens) {
-        // Obtener el documento del JTextPane (que SÍ soporta estilos)
-        StyledDocument doc = textPane.getStyledDocument();
-        
-        try {
-            // Limpiar todos los estilos previos - establecer color negro por defecto
-            Style defaultStyle = doc.addStyle("Default", null);
-            StyleConstants.setForeground(defaultStyle, Color.BLACK);
-            doc.setCharacterAttributes(0, doc.getLength(), defaultStyle, true);
-            
-            // Definir estilos con los colores especificados
-            Style estiloReservada = doc.addStyle("RESERVADA", null);
-            StyleConstants.setForeground(estiloReservada, Color.BLUE);
-            StyleConstants.setBold(estiloReservada, true);
-            
-            Style estiloIdentificador = doc.addStyle("IDENTIFICADOR", null);
-            StyleConstants.setForeground(estiloIdentificador, new Color(139, 69, 19)); // Café
-            
-            Style estiloEntero = doc.addStyle("ENTERO", null);
-            StyleConstants.setForeground(estiloEntero, Color.GREEN);
-            
-            Style estiloDecimal = doc.addStyle("DECIMAL", null);
-            StyleConstants.setForeground(estiloDecimal, Color.BLACK);
-            
-            Style estiloComentario = doc.addStyle("COMENTARIO", null);
-            StyleConstants.setForeground(estiloComentario, new Color(0, 100, 0)); // Verde oscuro
-            StyleConstants.setItalic(estiloComentario, true);
-            
-            Style estiloOperador = doc.addStyle("OPERADOR", null);
-            StyleConstants.setForeground(estiloOperador, Color.ORANGE);
-            
-            Style estiloAgrupacion = doc.addStyle("AGRUPACION", null);
-            StyleConstants.setForeground(estiloAgrupacion, new Color(128, 0, 128)); // Morado
-            
-            Style estiloError = doc.addStyle("ERROR", null);
-            StyleConstants.setForeground(estiloError, Color.RED);
-            StyleConstants.setBackground(estiloError, new Color(255, 255, 200)); // Fondo amarillo claro
-            StyleConstants.setBold(estiloError, true);
-            
-            Style estiloCadena = doc.addStyle("CADENA", null);
-            StyleConstants.setForeground(estiloCadena, new Color(163, 21, 21)); // Rojo oscuro
-            
-            Style estiloPuntuacion = doc.addStyle("PUNTUACION", null);
-            StyleConstants.setForeground(estiloPuntuacion, new Color(128, 0, 128)); // Morado
-            
-            // Aplicar estilos a cada token
-            for (lexer.Token token : tokens) {
-                int startPos = calcularPosicionEnTexto(token.getLine(), token.getColumn(), textPane.getText());
-                int length = token.getLexeme().length();
-                
-                if (startPos >= 0 && startPos + length <= doc.getLength()) {
-                    try {
-                        Style estilo = obtenerEstiloPorTipo(token.getType());
-                        if (estilo != null) {
-                            doc.setCharacterAttributes(startPos, length, estilo, false);
-                        }
-                    } catch (Exception e) {
-                        System.out.println("Error aplicando estilo para: " + token.getLexeme());
-                    }
-                }
-            }
-        } catch (Exception e) {
-            System.out.println("Error en aplicarColoresPorTokens: " + e.getMessage());
-        }
-    }
-    
-    private Style obtenerEstiloPorTipo(lexer.TokenType tipo) {
-        StyledDocument doc = textPane.getStyledDocument();
-        
-        switch (tipo) {
-            case PALABRA_RESERVADA:
-                return doc.getStyle("RESERVADA");
-            case IDENTIFICADOR:
-                return doc.getStyle("IDENTIFICADOR");
-            case ENTERO:
-                return doc.getStyle("ENTERO");
-            case DECIMAL:
-                return doc.getStyle("DECIMAL");
-            case COMENTARIO_LINEA:
-            case COMENTARIO_BLOQUE:
-                return doc.getStyle("COMENTARIO");
-            case OPERADOR:
-                return doc.getStyle("OPERADOR");
-            case AGRUPACION:
-                return doc.getStyle("AGRUPACION");
-            case ERROR:
-                return doc.getStyle("ERROR");
-            case CADENA:
-                return doc.getStyle("CADENA");
-            case PUNTUACION:
-                return doc.getStyle("PUNTUACION");
-            default:
-                return null;
-        }
-    }
-    
-    private int calcularPosicionEnTexto(int fila, int columna, String texto) {
-        int posicion = 0;
-        int lineaActual = 1;
-        int columnaActual = 1;
-        
-        for (int i = 0; i < texto.length(); i++) {
-            if (lineaActual == fila && columnaActual == columna) {
-                return i;
-            }
-            
-            if (texto.charAt(i) == '\n') {
-                lineaActual++;
-                columnaActual = 1;
-            } else {
-                columnaActual++;
-            }
-            posicion++;
-        }
-        
-        return -1; // No encontrado
+        // El análisis corre en segundo plano; los estilos se aplican después en el EDT
+        resaltador.solicitarResaltado();
     }
     
     private void updateCursorPosition() {
         try {
             int caretPosition = textPane.getCaretPosition();
-            int lineNumber = 1;
-            int columnNumber = 1;
             
-            String text = textPane.getText();
-            for (int i = 0; i < caretPosition; i++) {
-                if (text.charAt(i) == '\n') {
-                    lineNumber++;
-                    columnNumber = 1;
-                } else {
-                    columnNumber++;
-                }
-            }
+            // Cada línea del documento es un elemento hijo de la raíz: se busca la
+            // línea del cursor sin copiar ni recorrer el texto
+            Element raiz = textPane.getDocument().getDefaultRootElement();
+            int lineIndex = raiz.getElementIndex(caretPosition);
+            int lineNumber = lineIndex + 1;
+            int columnNumber = caretPosition - raiz.getElement(lineIndex).getStartOffset() + 1;
             
             statusLabel.setText(String.format("Fila: %d, Columna: %d", lineNumber, columnNumber));
         } catch (Exception ex) {
@@ -355,31 +240,61 @@ public class LexerGUI extends JFrame {
         
         int result = fileChooser.showOpenDialog(this);
         if (result == JFileChooser.APPROVE_OPTION) {
-            try {
-                File file = fileChooser.getSelectedFile();
-                BufferedReader reader = new BufferedReader(new FileReader(file));
-                
-                textPane.setText(""); // Limpiar área de texto
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    textPane.getDocument().insertString(
-                        textPane.getDocument().getLength(), 
-                        line + "\n", 
-                        null
-                    );
+            File file = fileChooser.getSelectedFile();
+            if (cargaEnCurso != null) {
+                cargaEnCurso.cancel(false);
+            }
+            
+            // El archivo se lee y el documento se arma en segundo plano; el editor
+            // conserva el documento actual hasta que el nuevo está completo
+            ProgressMonitor monitor = new ProgressMonitor(this, "Cargando " + file.getName(), null, 0, 100);
+            monitor.setMillisToDecideToPopup(200);
+            CargadorArchivo carga = new CargadorArchivo(file.toPath(), atributosParrafo) {
+                @Override
+                protected void done() {
+                    monitor.close();
+                    terminarCarga(this, file);
                 }
-                
-                reader.close();
-                statusLabel.setText("Archivo cargado: " + file.getName());
-                
-                // Aplicar resaltado después de cargar
-                SwingUtilities.invokeLater(() -> aplicarResaltadoSintaxis());
-                
-            } catch (Exception ex) {
-                JOptionPane.showMessageDialog(this, 
-                    "Error al cargar archivo: " + ex.getMessage(),
-                    "Error", JOptionPane.ERROR_MESSAGE);
+            };
+            carga.addPropertyChangeListener(e -> {
+                if ("progress".equals(e.getPropertyName())) {
+                    monitor.setProgress((Integer) e.getNewValue());
+                    if (monitor.isCanceled()) {
+                        carga.cancel(false);
+                    }
+                }
+            });
+            
+            cargaEnCurso = carga;
+            statusLabel.setText("Cargando archivo: " + file.getName() + "...");
+            carga.execute();
+        }
+    }
+    
+    private void terminarCarga(CargadorArchivo carga, File file) {
+        if (carga != cargaEnCurso) return; // La reemplazó una carga más nueva
+        cargaEnCurso = null;
+        
+        try {
+            StyledDocument doc = carga.get();
+            if (doc == null) {
+                statusLabel.setText("Carga cancelada: " + file.getName());
+                return;
             }
+            
+            // Un solo cambio de documento en vez de una inserción por línea; el
+            // resaltado y los números de línea se enganchan al documento nuevo
+            textPane.setDocument(doc);
+            textPane.setCaretPosition(0);
+            statusLabel.setText("Archivo cargado: " + file.getName());
+        } catch (CancellationException ex) {
+            statusLabel.setText("Carga cancelada: " + file.getName());
+        } catch (InterruptedException | ExecutionException ex) {
+            Throwable causa = ex.getCause() != null ? ex.getCause() : ex;
+            statusLabel.setText("Listo");
+            JOptionPane.showMessageDialog(this, 
+                "Error al cargar archivo: " + causa.getMessage(),
+                "Error", JOptionPane.ERROR_MESSAGE);
         }
     }
     
@@ -429,31 +344,128 @@ public class LexerGUI extends JFrame {
             JOptionPane.showMessageDialog(this, "No hay texto para analizar");
             return;
         }
+        if (analisisEnCurso != null) {
+            analisisEnCurso.cancel(false);
+        }
         
-        try {
-            // Crear y ejecutar analizador léxico
-            lexer.Lexer lexer = new lexer.Lexer();
-            lexer.analyze(inputText);
+        lexer.TraceLevel nivelTraza = (lexer.TraceLevel) cmbDetalleLog.getSelectedItem();
+        
+        // El análisis corre en segundo plano; el EDT solo muestra el avance y,
+        // al terminar, conecta los modelos de resultados al lexer
+        SwingWorker<lexer.Lexer, Void> analisis = new SwingWorker<lexer.Lexer, Void>() {
+            @Override
+            protected lexer.Lexer doInBackground() {
+                lexer.Lexer lexer = new lexer.Lexer();
+                lexer.setTraceLevel(nivelTraza);
+                lexer.analyze(inputText, porcentaje -> {
+                    if (isCancelled()) throw new CancellationException();
+                    setProgress(porcentaje);
+                });
+                return lexer;
+            }
             
-            // Mostrar resultados
-            resultArea.setText(lexer.getResults());
+            @Override
+            protected void done() {
+                terminarAnalisis(this);
+            }
+        };
+        analisis.addPropertyChangeListener(e -> {
+            if ("progress".equals(e.getPropertyName())) {
+                barraProgreso.setValue((Integer) e.getNewValue());
+            }
+        });
+        
+        analisisEnCurso = analisis;
+        barraProgreso.setValue(0);
+        barraProgreso.setVisible(true);
+        statusLabel.setText("Analizando...");
+        analisis.execute();
+    }
+    
+    private void terminarAnalisis(SwingWorker<lexer.Lexer, Void> analisis) {
+        if (analisis != analisisEnCurso) return; // Lo reemplazó un análisis más nuevo
+        analisisEnCurso = null;
+        barraProgreso.setVisible(false);
+        
+        try {
+            lexer.Lexer lexer = analisis.get();
+            ultimoAnalisis = lexer;
+            mostrarResultados(lexer);
             
             // Actualizar estado
             java.util.List<String> errors = lexer.getErrors();
             if (errors.isEmpty()) {
-                statusLabel.setText("Análisis completado - " + lexer.getTokens().size() + " tokens encontrados");
+                statusLabel.setText("Análisis completado - " + lexer.getTokenBuffer().size() + " tokens encontrados");
             } else {
                 statusLabel.setText("Análisis completado con " + errors.size() + " errores");
             }
             
-        } catch (Exception ex) {
+        } catch (CancellationException ex) {
+            statusLabel.setText("Análisis cancelado");
+        } catch (InterruptedException | ExecutionException ex) {
+            Throwable causa = ex.getCause() != null ? ex.getCause() : ex;
+            statusLabel.setText("Listo");
             JOptionPane.showMessageDialog(this, 
-                "Error durante el análisis: " + ex.getMessage(),
+                "Error durante el análisis: " + causa.getMessage(),
                 "Error", JOptionPane.ERROR_MESSAGE);
-            ex.printStackTrace();
+            causa.printStackTrace();
         }
     }
     
+    // Conecta las tablas y listas a los datos del lexer, sin copiar tokens ni armar el reporte
+    private void mostrarResultados(lexer.Lexer lexer) {
+        tablaTokens.setModel(new ModeloTablaTokens(lexer.getTokenBuffer()));
+        
+        // Cada error ocupa una fila (sus líneas de sugerencia se muestran a continuación)
+        java.util.List<String> errores = lexer.getErrors();
+        listaErrores.setModel(new AbstractListModel<String>() {
+            public int getSize() { return errores.size(); }
+            public String getElementAt(int i) {
+                return "ERROR " + (i + 1) + ": " + errores.get(i).replace("\n", " ");
+            }
+        });
+        
+        java.util.List<String> log = lexer.getAnalysisLog();
+        listaLog.setModel(new AbstractListModel<String>() {
+            public int getSize() { return log.size(); }
+            public String getElementAt(int i) { return log.get(i); }
+        });
+        
+        // Las claves del recuento son pares (lexema, tipo)
+        java.util.List<Map.Entry<Map.Entry<String, lexer.TokenType>, Integer>> conteo =
+            new ArrayList<>(lexer.getLexemeCount().entrySet());
+        tablaLexemas.setModel(new javax.swing.table.AbstractTableModel() {
+            public int getRowCount() { return conteo.size(); }
+            public int getColumnCount() { return 3; }
+            public String getColumnName(int columna) {
+                return new String[] { "Lexema", "Tipo", "Cantidad" }[columna];
+            }
+            public Class<?> getColumnClass(int columna) {
+                return columna == 2 ? Integer.class : String.class;
+            }
+            public Object getValueAt(int fila, int columna) {
+                Map.Entry<Map.Entry<String, lexer.TokenType>, Integer> entrada = conteo.get(fila);
+                if (columna == 2) return entrada.getValue();
+                Map.Entry<String, lexer.TokenType> clave = entrada.getKey();
+                return columna == 0 ? "'" + clave.getKey() + "'" : clave.getValue().toString();
+            }
+        });
+        
+        resultTabs.setTitleAt(0, "Tokens (" + lexer.getTokenBuffer().size() + ")");
+        resultTabs.setTitleAt(1, "Errores (" + errores.size() + ")");
+        resultTabs.setTitleAt(2, "Recuento de lexemas (" + conteo.size() + ")");
+        resultTabs.setTitleAt(3, "Log (" + log.size() + ")");
+    }
+    
+    // Lista de una línea por fila. El prototipo fija alto y ancho de las celdas para
+    // que la lista no tenga que medir todos los elementos al cambiar de modelo.
+    private static JList<String> crearListaResultados(Font fuente) {
+        JList<String> lista = new JList<>();
+        lista.setFont(fuente);
+        lista.setPrototypeCellValue(String.format("%200s", ""));
+        return lista;
+    }
+    
     private void abrirDepuracion() {
         String inputText = textPane.getText().trim();
         if (inputText.isEmpty()) {
@@ -466,7 +478,7 @@ public class LexerGUI extends JFrame {
     }
     
     private void exportarReporte() {
-        if (resultArea.getText().trim().isEmpty()) {
+        if (ultimoAnalisis == null) {
             JOptionPane.showMessageDialog(this, "No hay resultados para exportar");
             return;
         }
@@ -477,17 +489,36 @@ public class LexerGUI extends JFrame {
         
         int result = fileChooser.showSaveDialog(this);
         if (result == JFileChooser.APPROVE_OPTION) {
-            try {
-                File file = fileChooser.getSelectedFile();
-                FileWriter writer = new FileWriter(file);
-                writer.write(resultArea.getText());
-                writer.close();
-                statusLabel.setText("Reporte exportado: " + file.getName());
-            } catch (Exception ex) {
-                JOptionPane.showMessageDialog(this, 
-                    "Error al exportar reporte: " + ex.getMessage(),
-                    "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            File file = fileChooser.getSelectedFile();
+            lexer.Lexer analisis = ultimoAnalisis;
+            
+            // El reporte se escribe en segundo plano directo al archivo a medida que
+            // se genera; nunca está completo en memoria
+            SwingWorker<Void, Void> exportacion = new SwingWorker<Void, Void>() {
+                @Override
+                protected Void doInBackground() throws IOException {
+                    try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+                        analisis.writeResults(writer);
+                    }
+                    return null;
+                }
+                
+                @Override
+                protected void done() {
+                    try {
+                        get();
+                        statusLabel.setText("Reporte exportado: " + file.getName());
+                    } catch (InterruptedException | ExecutionException ex) {
+                        Throwable causa = ex.getCause() != null ? ex.getCause() : ex;
+                        statusLabel.setText("Listo");
+                        JOptionPane.showMessageDialog(LexerGUI.this, 
+                            "Error al exportar reporte: " + causa.getMessage(),
+                            "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                }
+            };
+            statusLabel.setText("Exportando reporte: " + file.getName() + "...");
+            exportacion.execute();
         }
     }
     
@@ -542,13 +573,13 @@ public class LexerGUI extends JFrame {
             }
         });
         
-       
+        
     }
     
     public static void main(String[] args) {
         // Establecer look and feel del sistema
         try {
-            UIManager.setLookAndFeel(UIManager.getSystemLookAndFeel());
+            UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -1,47 +1,109 @@
 package gui;
 
 import javax.swing.*;
+import javax.swing.event.*;
 import javax.swing.text.*;
 import java.awt.*;
+import java.awt.event.*;
+import java.awt.geom.Rectangle2D;
 
-public class LineNumberPanel extends JTextArea {
-    private JTextComponent textComponent;
-
+// Margen con los números de línea. Se pinta directamente y solo dibuja las
+// líneas visibles; la cantidad de líneas se toma de la estructura de elementos
+// del documento (un elemento por línea), sin copiar ni partir el texto.
+public class LineNumberPanel extends JComponent {
+    private static final int MARGEN = 5;
+    
+    private final JTextComponent textComponent;
+    private int lineas;
+    
     public LineNumberPanel(JTextComponent component) {
         this.textComponent = component;
         setBackground(new Color(240, 240, 240));
         setForeground(Color.GRAY);
         setFont(new Font("Consolas", Font.PLAIN, 12));
-        setEditable(false);
-        setFocusable(false);
+        setOpaque(true);
         
-        // Configurar tamaño preferido
-        setPreferredSize(new Dimension(40, 0));
+        lineas = contarLineas();
         
-        // Actualizar números cuando el documento cambie
-        component.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
-            public void insertUpdate(javax.swing.event.DocumentEvent e) { updateLineNumbers(); }
-            public void removeUpdate(javax.swing.event.DocumentEvent e) { updateLineNumbers(); }
-            public void changedUpdate(javax.swing.event.DocumentEvent e) { updateLineNumbers(); }
+        // Solo importa si cambia la cantidad de líneas (el DocumentEvent lo indica
+        // cuando la edición agregó o quitó elementos de la raíz)
+        component.getDocument().addDocumentListener(oyenteDocumento);
+        
+        // Si el editor recibe otro documento, el oyente pasa al nuevo
+        component.addPropertyChangeListener("document", e -> {
+            if (e.getOldValue() != null) ((Document) e.getOldValue()).removeDocumentListener(oyenteDocumento);
+            if (e.getNewValue() == null) return;
+            ((Document) e.getNewValue()).addDocumentListener(oyenteDocumento);
+            lineas = contarLineas();
+            revalidate();
+            repaint();
         });
         
-        updateLineNumbers();
+        // El alto sigue al del editor (por ejemplo, al cambiar de documento o de tamaño)
+        component.addComponentListener(new ComponentAdapter() {
+            public void componentResized(ComponentEvent e) {
+                revalidate();
+                repaint();
+            }
+        });
+    }
+    
+    private final DocumentListener oyenteDocumento = new DocumentListener() {
+        public void insertUpdate(DocumentEvent e) { actualizarLineas(e); }
+        public void removeUpdate(DocumentEvent e) { actualizarLineas(e); }
+        public void changedUpdate(DocumentEvent e) { }
+    };
+    
+    @Override
+    public Dimension getPreferredSize() {
+        FontMetrics fm = getFontMetrics(getFont());
+        int digitos = Math.max(2, String.valueOf(lineas).length());
+        int ancho = MARGEN * 2 + digitos * fm.charWidth('0');
+        return new Dimension(ancho, textComponent.getHeight());
     }
     
-    private void updateLineNumbers() {
-        try {
-            Document doc = textComponent.getDocument();
-            String text = doc.getText(0, doc.getLength());
-            String[] lines = text.split("\n", -1);
-            
-            StringBuilder numbers = new StringBuilder();
-            for (int i = 1; i <= lines.length; i++) {
-                numbers.append(i).append("\n");
+    @Override
+    protected void paintComponent(Graphics g) {
+        Rectangle visible = g.getClipBounds();
+        g.setColor(getBackground());
+        g.fillRect(visible.x, visible.y, visible.width, visible.height);
+        
+        Element raiz = textComponent.getDocument().getDefaultRootElement();
+        int inicio = textComponent.viewToModel2D(new Point(0, visible.y));
+        int fin = textComponent.viewToModel2D(new Point(0, visible.y + visible.height));
+        if (inicio < 0 || fin < 0) return;
+        
+        FontMetrics fm = g.getFontMetrics(getFont());
+        g.setFont(getFont());
+        g.setColor(getForeground());
+        int ancho = getWidth();
+        
+        for (int linea = raiz.getElementIndex(inicio); linea <= raiz.getElementIndex(fin); linea++) {
+            try {
+                Rectangle2D posicion = textComponent.modelToView2D(raiz.getElement(linea).getStartOffset());
+                if (posicion == null) continue;
+                String numero = String.valueOf(linea + 1);
+                int y = (int) (posicion.getY() + posicion.getHeight()) - fm.getDescent();
+                g.drawString(numero, ancho - MARGEN - fm.stringWidth(numero), y);
+            } catch (BadLocationException e) {
+                break;
             }
-            
-            setText(numbers.toString());
-        } catch (Exception e) {
-            setText("1\n");
         }
     }
-}
\ No newline at end of file
+    
+    private void actualizarLineas(DocumentEvent e) {
+        Element raiz = textComponent.getDocument().getDefaultRootElement();
+        if (e.getChange(raiz) == null) return; // Misma cantidad de líneas
+        
+        int anteriores = lineas;
+        lineas = contarLineas();
+        if (String.valueOf(anteriores).length() != String.valueOf(lineas).length()) {
+            revalidate(); // Cambia el ancho del margen
+        }
+        repaint();
+    }
+    
+    private int contarLineas() {
+        return textComponent.getDocument().getDefaultRootElement().getElementCount();
+    }
+}
@@ -0,0 +1,60 @@
+package gui;
+
+import javax.swing.table.AbstractTableModel;
+import lexer.TokenBuffer;
+
+// Modelo de tabla que lee los tokens directo del TokenBuffer del análisis, sin
+// copiarlos ni armar texto: la JTable solo pide las celdas de las filas visibles,
+// así que mostrar el resultado cuesta lo mismo con cien tokens que con millones.
+class ModeloTablaTokens extends AbstractTableModel {
+    private static final String[] COLUMNAS = { "#", "Tipo", "Lexema", "Fila", "Columna" };
+    
+    // Los lexemas más largos (por ejemplo, un comentario de bloque enorme) se recortan al mostrarlos
+    private static final int LARGO_MAXIMO_LEXEMA = 200;
+    
+    private final TokenBuffer tokens;
+    
+    ModeloTablaTokens(TokenBuffer tokens) {
+        this.tokens = tokens;
+    }
+    
+    @Override
+    public int getRowCount() {
+        return tokens.size();
+    }
+    
+    @Override
+    public int getColumnCount() {
+        return COLUMNAS.length;
+    }
+    
+    @Override
+    public String getColumnName(int columna) {
+        return COLUMNAS[columna];
+    }
+    
+    @Override
+    public Class<?> getColumnClass(int columna) {
+        return columna == 0 || columna >= 3 ? Integer.class : String.class;
+    }
+    
+    @Override
+    public Object getValueAt(int fila, int columna) {
+        switch (columna) {
+            case 0: return fila + 1;
+            case 1: return tokens.getType(fila).toString();
+            case 2: return mostrarLexema(fila);
+            case 3: return tokens.getRow(fila);
+            default: return tokens.getColumn(fila);
+        }
+    }
+    
+    // Lexema en una sola línea, con los saltos visibles
+    private String mostrarLexema(int fila) {
+        String lexema = tokens.getLexeme(fila);
+        if (lexema.length() > LARGO_MAXIMO_LEXEMA) {
+            lexema = lexema.substring(0, LARGO_MAXIMO_LEXEMA) + "...";
+        }
+        return lexema.replace("\r", "\\r").replace("\n", "\\n").replace("\t", "\\t");
+    }
+}
@@ -0,0 +1,86 @@
+package gui;
+
+import javax.swing.*;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+// Modelo de lista para un log de capacidad fija: guarda solo los últimos
+// "capacidad" mensajes en un arreglo circular, así que la memoria no crece con la
+// sesión. Los mensajes nuevos se juntan y se pasan a la lista en un solo lote por
+// cuadro (un Timer de ~16 ms), con un evento de quitados y otro de agregados en vez
+// de uno por mensaje. Se usa solo desde el EDT.
+class RegistroCircular extends AbstractListModel<String> {
+    private static final int MILIS_POR_CUADRO = 16;
+    
+    private final String[] mensajes;
+    private int inicio = 0;
+    private int cantidad = 0;
+    
+    // Mensajes que llegaron desde el último lote (como mucho "capacidad")
+    private final ArrayDeque<String> pendientes = new ArrayDeque<>();
+    private final Timer timer;
+    
+    RegistroCircular(int capacidad) {
+        mensajes = new String[capacidad];
+        timer = new Timer(MILIS_POR_CUADRO, e -> volcarPendientes());
+        timer.setRepeats(false);
+    }
+    
+    @Override
+    public int getSize() {
+        return cantidad;
+    }
+    
+    @Override
+    public String getElementAt(int indice) {
+        return mensajes[(inicio + indice) % mensajes.length];
+    }
+    
+    void agregar(String mensaje) {
+        if (pendientes.size() == mensajes.length) {
+            pendientes.pollFirst(); // De todos modos no llegaría a mostrarse
+        }
+        pendientes.addLast(mensaje);
+        if (!timer.isRunning()) {
+            timer.start();
+        }
+    }
+    
+    void clear() {
+        timer.stop();
+        pendientes.clear();
+        int anteriores = cantidad;
+        inicio = 0;
+        cantidad = 0;
+        Arrays.fill(mensajes, null);
+        if (anteriores > 0) {
+            fireIntervalRemoved(this, 0, anteriores - 1);
+        }
+    }
+    
+    private void volcarPendientes() {
+        if (pendientes.isEmpty()) return;
+        int capacidad = mensajes.length;
+        int anteriores = cantidad;
+        int nuevos = pendientes.size();
+        
+        for (String mensaje : pendientes) {
+            if (cantidad < capacidad) {
+                mensajes[(inicio + cantidad) % capacidad] = mensaje;
+                cantidad++;
+            } else {
+                // Lleno: el mensaje nuevo ocupa el lugar del más viejo
+                mensajes[inicio] = mensaje;
+                inicio = (inicio + 1) % capacidad;
+            }
+        }
+        pendientes.clear();
+        
+        // Mensajes viejos que salieron por el principio, y los nuevos que quedaron al final
+        int quitados = Math.max(0, anteriores + nuevos - capacidad);
+        if (quitados > 0) {
+            fireIntervalRemoved(this, 0, quitados - 1);
+        }
+        fireIntervalAdded(this, anteriores - quitados, cantidad - 1);
+    }
+}
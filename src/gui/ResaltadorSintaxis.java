@@ -0,0 +1,450 @@
+package gui;
+
+import javax.swing.*;
+import javax.swing.event.*;
+import javax.swing.text.*;
+import java.awt.*;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.Timer;
+import lexer.IncrementalLexer;
+import lexer.TokenBuffer;
+import lexer.TokenType;
+
+// Resaltado de sintaxis fuera del hilo de eventos (EDT). En el EDT solo se
+// registran las ediciones y se toma una copia del texto; el análisis léxico y el
+// cálculo de los estilos se hacen en un hilo trabajador, y los estilos se aplican
+// de vuelta en el EDT por lotes acotados, para que el editor siga respondiendo
+// aunque el archivo sea muy grande.
+//
+// Solo se aplican estilos a la parte visible del JScrollPane más un margen de
+// líneas; al desplazarse se pide la zona nueva. Los tokens de todo el documento
+// quedan en memoria en el trabajador, pero fuera de pantalla no se toca Swing.
+//
+// Cada edición aumenta la versión del documento. Un trabajo cuya versión ya no es
+// la actual se descarta: el trabajador no analiza si hay una edición más nueva, y
+// el EDT deja de aplicar lotes de una versión vieja. Lo que no se llegó a aplicar
+// no se marca como cubierto y se vuelve a pedir cuando vuelva a ser visible.
+//
+// El trabajador recuerda qué estilo tiene aplicado cada parte del documento. Los
+// tokens contiguos del mismo estilo se funden en una corrida, y solo se envían al
+// EDT los tramos cuyo estilo cambió respecto de lo aplicado, así que el trabajo en
+// Swing (y los eventos de repintado y deshacer) es proporcional a la edición.
+public class ResaltadorSintaxis {
+    // Llamadas a setCharacterAttributes por cada tarea en el EDT
+    private static final int CORRIDAS_POR_LOTE = 256;
+    
+    // Líneas que se resaltan por encima y por debajo de la parte visible
+    private static final int MARGEN_LINEAS = 100;
+    
+    private final JTextPane textPane;
+    // estilos[0] es el estilo normal; los tokens se refieren a los estilos por índice
+    private final Style[] estilos;
+    private final int[] estiloPorTipo = new int[TokenType.values().length];
+    private final Timer timer;
+    private final ExecutorService trabajador;
+    private JViewport viewport;
+    
+    // Versión del documento: aumenta con cada edición (se escribe en el EDT)
+    private final AtomicInteger version = new AtomicInteger();
+    
+    // Solo EDT: ediciones {offset, eliminados, insertados} aún no enviadas al trabajador
+    private List<int[]> edicionesPendientes = new ArrayList<>();
+    private int ultimoTrabajo = 0;
+    private int versionVentanaPedida = -1;
+    private int inicioVentanaPedida;
+    private int finVentanaPedida;
+    
+    // Trabajos cuyos estilos se aplicaron completos (los agrega el EDT)
+    private final Queue<Integer> trabajosAplicados = new ConcurrentLinkedQueue<>();
+    
+    // Solo hilo trabajador
+    private final IncrementalLexer lexer = new IncrementalLexer();
+    private int versionAnalizada = -1;
+    // El documento se reemplazó: el próximo texto se analiza completo, sin ediciones
+    private boolean analisisCompleto = false;
+    // Estilo que tiene aplicado cada parte conocida del documento (valor = índice en estilos)
+    private final ZonasTexto aplicadas = new ZonasTexto();
+    // Zonas donde lo aplicado coincide con los tokens actuales
+    private final ZonasTexto cubiertas = new ZonasTexto();
+    // Trabajos enviados al EDT que todavía no se confirmaron
+    private final Map<Integer, Corridas> enviadas = new HashMap<>();
+    
+    // Resultado de un trabajo: las zonas que resalta, sus corridas nuevas (que las
+    // cubren completas) y los cambios, que son los tramos que difieren de lo aplicado.
+    // Cada corrida es {inicio, fin, índice de estilo}.
+    private static class Corridas {
+        final int trabajo;
+        final int version;
+        final ZonasTexto zonas;
+        final List<int[]> nuevas;
+        final List<int[]> cambios;
+        
+        Corridas(int trabajo, int version, ZonasTexto zonas, List<int[]> nuevas, List<int[]> cambios) {
+            this.trabajo = trabajo;
+            this.version = version;
+            this.zonas = zonas;
+            this.nuevas = nuevas;
+            this.cambios = cambios;
+        }
+    }
+    
+    public ResaltadorSintaxis(JTextPane textPane) {
+        this.textPane = textPane;
+        
+        // Los estilos se crean una sola vez
+        StyledDocument doc = textPane.getStyledDocument();
+        estilos = crearEstilos(doc);
+        
+        trabajador = Executors.newSingleThreadExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "resaltado-sintaxis");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        
+        // Timer para resaltado en tiempo real
+        timer = new Timer(500, e -> solicitarResaltado());
+        timer.setRepeats(false); // Solo ejecutar una vez después del delay
+        
+        doc.addDocumentListener(oyenteDocumento);
+        
+        // Al reemplazar el documento completo (por ejemplo, al cargar un archivo)
+        textPane.addPropertyChangeListener("document",
+            e -> cambiarDocumento((Document) e.getOldValue(), (Document) e.getNewValue()));
+    }
+    
+    private final DocumentListener oyenteDocumento = new DocumentListener() {
+        public void insertUpdate(DocumentEvent e) {
+            registrarEdicion(e.getOffset(), 0, e.getLength());
+        }
+        public void removeUpdate(DocumentEvent e) {
+            registrarEdicion(e.getOffset(), e.getLength(), 0);
+        }
+        public void changedUpdate(DocumentEvent e) {
+            // Solo cambian atributos (por ejemplo, los colores del propio resaltado):
+            // el texto y los tokens siguen iguales
+        }
+    };
+    
+    // Envía al trabajador una copia del texto, las ediciones acumuladas y la zona visible (EDT)
+    public void solicitarResaltado() {
+        timer.stop();
+        try {
+            StyledDocument doc = textPane.getStyledDocument();
+            String texto = doc.getText(0, doc.getLength());
+            List<int[]> ediciones = edicionesPendientes;
+            edicionesPendientes = new ArrayList<>();
+            enviar(texto, ediciones);
+        } catch (BadLocationException ex) {
+            System.out.println("Error en resaltado: " + ex.getMessage());
+        }
+    }
+    
+    // El editor tiene un documento nuevo: las ediciones pendientes eran del anterior
+    // y el trabajador olvida tokens y estilos aplicados antes de analizar el nuevo
+    private void cambiarDocumento(Document anterior, Document nuevo) {
+        if (anterior != null) anterior.removeDocumentListener(oyenteDocumento);
+        if (nuevo == null) return;
+        nuevo.addDocumentListener(oyenteDocumento);
+        
+        edicionesPendientes = new ArrayList<>();
+        version.incrementAndGet();
+        trabajador.execute(this::reiniciar);
+        solicitarResaltado();
+    }
+    
+    private void registrarEdicion(int offset, int eliminados, int insertados) {
+        edicionesPendientes.add(new int[] { offset, eliminados, insertados });
+        version.incrementAndGet();
+        timer.restart();
+    }
+    
+    // Al desplazarse solo se pide la zona nueva; si hay ediciones sin analizar,
+    // el trabajo de esas ediciones ya usará la zona visible de ese momento
+    private void solicitarVentana() {
+        if (!edicionesPendientes.isEmpty()) return;
+        enviar(null, Collections.emptyList());
+    }
+    
+    private void enviar(String texto, List<int[]> ediciones) {
+        int versionTexto = version.get();
+        int[] ventana = calcularVentana();
+        if (texto == null && versionTexto == versionVentanaPedida
+                && ventana[0] == inicioVentanaPedida && ventana[1] == finVentanaPedida) {
+            return; // Misma zona y mismo texto que el último pedido
+        }
+        versionVentanaPedida = versionTexto;
+        inicioVentanaPedida = ventana[0];
+        finVentanaPedida = ventana[1];
+        
+        int trabajo = ++ultimoTrabajo;
+        trabajador.execute(() -> procesar(trabajo, versionTexto, texto, ediciones, ventana[0], ventana[1]));
+    }
+    
+    // Zona visible del editor más MARGEN_LINEAS líneas arriba y abajo
+    private int[] calcularVentana() {
+        Document doc = textPane.getDocument();
+        if (viewport == null) {
+            viewport = (JViewport) SwingUtilities.getAncestorOfClass(JViewport.class, textPane);
+            if (viewport == null) {
+                // Sin JScrollPane todo el texto es visible
+                return new int[] { 0, doc.getLength() };
+            }
+            viewport.addChangeListener(e -> solicitarVentana());
+        }
+        
+        Rectangle visible = viewport.getViewRect();
+        if (visible.isEmpty()) {
+            return new int[] { 0, 0 };
+        }
+        int inicio = textPane.viewToModel2D(new Point(visible.x, visible.y));
+        int fin = textPane.viewToModel2D(new Point(visible.x + visible.width, visible.y + visible.height));
+        
+        Element raiz = doc.getDefaultRootElement();
+        int primeraLinea = Math.max(0, raiz.getElementIndex(inicio) - MARGEN_LINEAS);
+        int ultimaLinea = Math.min(raiz.getElementCount() - 1, raiz.getElementIndex(fin) + MARGEN_LINEAS);
+        return new int[] {
+            raiz.getElement(primeraLinea).getStartOffset(),
+            Math.min(doc.getLength(), raiz.getElement(ultimaLinea).getEndOffset())
+        };
+    }
+    
+    // === HILO TRABAJADOR ===
+    
+    private void procesar(int trabajo, int versionTexto, String texto, List<int[]> ediciones,
+                          int inicioVentana, int finVentana) {
+        try {
+            confirmarAplicados();
+            
+            if (!ediciones.isEmpty()) {
+                // Lo enviado y no confirmado antes de estas ediciones ya no se aplicará
+                // completo: en esas zonas no se sabe qué estilo quedó
+                for (Corridas pendiente : enviadas.values()) {
+                    for (int[] zona : pendiente.zonas.getZonas()) {
+                        aplicadas.quitar(zona[0], zona[1]);
+                    }
+                }
+                enviadas.clear();
+                
+                for (int[] edicion : ediciones) {
+                    lexer.textChanged(edicion[0], edicion[1], edicion[2]);
+                    aplicadas.desplazar(edicion[0], edicion[1], edicion[2]);
+                    cubiertas.desplazar(edicion[0], edicion[1], edicion[2]);
+                }
+            }
+            
+            // Hay una edición más nueva: su trabajo analizará estas ediciones junto con las suyas
+            if (versionTexto != version.get()) return;
+            
+            if (texto != null) {
+                if (analisisCompleto) {
+                    lexer.analyze(texto);
+                    analisisCompleto = false;
+                } else {
+                    lexer.update(texto);
+                }
+                cubiertas.quitar(lexer.getChangeStart(), lexer.getChangeEnd());
+                versionAnalizada = versionTexto;
+            } else if (versionTexto != versionAnalizada) {
+                return; // Los tokens todavía no corresponden a este texto
+            }
+            
+            List<ZonasTexto> conocidas = new ArrayList<>();
+            conocidas.add(cubiertas);
+            for (Corridas pendiente : enviadas.values()) {
+                conocidas.add(pendiente.zonas);
+            }
+            ZonasTexto faltantes = ZonasTexto.faltantes(inicioVentana, finVentana, conocidas);
+            if (faltantes.isEmpty()) return;
+            
+            Corridas corridas = calcularCorridas(trabajo, versionTexto, faltantes);
+            if (corridas.cambios.isEmpty()) {
+                // Lo aplicado ya coincide: la zona queda cubierta sin tocar Swing
+                registrarAplicadas(corridas);
+                return;
+            }
+            enviadas.put(trabajo, corridas);
+            SwingUtilities.invokeLater(() -> aplicarLote(corridas, 0));
+        } catch (Exception ex) {
+            // Silenciar errores durante el resaltado en tiempo real
+            System.out.println("Error en resaltado: " + ex.getMessage());
+        }
+    }
+    
+    private void reiniciar() {
+        trabajosAplicados.clear();
+        enviadas.clear();
+        aplicadas.clear();
+        cubiertas.clear();
+        versionAnalizada = -1;
+        analisisCompleto = true;
+    }
+    
+    private void confirmarAplicados() {
+        Integer trabajo;
+        while ((trabajo = trabajosAplicados.poll()) != null) {
+            Corridas corridas = enviadas.remove(trabajo);
+            if (corridas != null) {
+                registrarAplicadas(corridas);
+            }
+        }
+    }
+    
+    private void registrarAplicadas(Corridas corridas) {
+        for (int[] corrida : corridas.nuevas) {
+            aplicadas.asignar(corrida[0], corrida[1], corrida[2]);
+        }
+        cubiertas.agregarTodas(corridas.zonas);
+    }
+    
+    // Corridas de estilo de las zonas (tokens contiguos del mismo estilo fundidos,
+    // huecos con el estilo normal) y tramos que difieren de lo aplicado
+    private Corridas calcularCorridas(int trabajo, int versionTexto, ZonasTexto zonas) {
+        TokenBuffer tokens = lexer.getTokenBuffer();
+        List<int[]> nuevas = new ArrayList<>();
+        
+        for (int[] zona : zonas.getZonas()) {
+            int inicio = zona[0];
+            int fin = zona[1];
+            int primero = tokens.indexAtOrAfter(inicio);
+            if (primero > 0 && tokens.getOffset(primero - 1) + tokens.getLength(primero - 1) > inicio) {
+                primero--;
+            }
+            int ultimo = tokens.indexAtOrAfter(fin);
+            
+            int posicion = inicio;
+            for (int i = primero; i < ultimo; i++) {
+                int desde = Math.max(tokens.getOffset(i), inicio);
+                int hasta = Math.min(tokens.getOffset(i) + tokens.getLength(i), fin);
+                if (hasta <= desde) continue;
+                agregarCorrida(nuevas, posicion, desde, 0);
+                agregarCorrida(nuevas, desde, hasta, estiloPorTipo[tokens.getType(i).ordinal()]);
+                posicion = hasta;
+            }
+            agregarCorrida(nuevas, posicion, fin, 0);
+        }
+        
+        // Comparar con lo aplicado (las zonas sin estilo conocido siempre cambian)
+        List<int[]> cambios = new ArrayList<>();
+        List<int[]> previas = aplicadas.getZonas();
+        int k = nuevas.isEmpty() ? 0 : aplicadas.indiceDesde(nuevas.get(0)[0]);
+        for (int[] nueva : nuevas) {
+            int posicion = nueva[0];
+            while (posicion < nueva[1]) {
+                while (k < previas.size() && previas.get(k)[1] <= posicion) {
+                    k++;
+                }
+                int hasta;
+                boolean igual;
+                if (k < previas.size() && previas.get(k)[0] <= posicion) {
+                    hasta = Math.min(nueva[1], previas.get(k)[1]);
+                    igual = previas.get(k)[2] == nueva[2];
+                } else {
+                    hasta = k < previas.size() ? Math.min(nueva[1], previas.get(k)[0]) : nueva[1];
+                    igual = false;
+                }
+                if (!igual) {
+                    agregarCorrida(cambios, posicion, hasta, nueva[2]);
+                }
+                posicion = hasta;
+            }
+        }
+        return new Corridas(trabajo, versionTexto, zonas, nuevas, cambios);
+    }
+    
+    // Agrega [inicio, fin) con "estilo", fundiéndola con la anterior si son contiguas e iguales
+    private static void agregarCorrida(List<int[]> corridas, int inicio, int fin, int estilo) {
+        if (fin <= inicio) return;
+        if (!corridas.isEmpty()) {
+            int[] anterior = corridas.get(corridas.size() - 1);
+            if (anterior[1] == inicio && anterior[2] == estilo) {
+                anterior[1] = fin;
+                return;
+            }
+        }
+        corridas.add(new int[] { inicio, fin, estilo });
+    }
+    
+    // === EDT ===
+    
+    private void aplicarLote(Corridas corridas, int desde) {
+        // El documento cambió desde la copia: estas zonas se volverán a pedir
+        if (corridas.version != version.get()) return;
+        
+        StyledDocument doc = textPane.getStyledDocument();
+        int hasta = Math.min(desde + CORRIDAS_POR_LOTE, corridas.cambios.size());
+        for (int i = desde; i < hasta; i++) {
+            int[] cambio = corridas.cambios.get(i);
+            doc.setCharacterAttributes(cambio[0], cambio[1] - cambio[0], estilos[cambio[2]], true);
+        }
+        
+        if (hasta < corridas.cambios.size()) {
+            // Ceder el EDT entre lotes para atender teclado y pintado
+            SwingUtilities.invokeLater(() -> aplicarLote(corridas, hasta));
+        } else {
+            trabajosAplicados.add(corridas.trabajo);
+        }
+    }
+    
+    // Crea los estilos una sola vez y asigna a cada tipo de token el índice del suyo
+    private Style[] crearEstilos(StyledDocument doc) {
+        Style estiloNormal = doc.addStyle("Default", null);
+        StyleConstants.setForeground(estiloNormal, Color.BLACK);
+        
+        // Definir estilos con los colores especificados
+        Style estiloReservada = doc.addStyle("RESERVADA", null);
+        StyleConstants.setForeground(estiloReservada, Color.BLUE);
+        StyleConstants.setBold(estiloReservada, true);
+        
+        Style estiloIdentificador = doc.addStyle("IDENTIFICADOR", null);
+        StyleConstants.setForeground(estiloIdentificador, new Color(139, 69, 19)); // Café
+        
+        Style estiloEntero = doc.addStyle("ENTERO", null);
+        StyleConstants.setForeground(estiloEntero, Color.GREEN);
+        
+        Style estiloDecimal = doc.addStyle("DECIMAL", null);
+        StyleConstants.setForeground(estiloDecimal, Color.BLACK);
+        
+        Style estiloComentario = doc.addStyle("COMENTARIO", null);
+        StyleConstants.setForeground(estiloComentario, new Color(0, 100, 0)); // Verde oscuro
+        StyleConstants.setItalic(estiloComentario, true);
+        
+        Style estiloOperador = doc.addStyle("OPERADOR", null);
+        StyleConstants.setForeground(estiloOperador, Color.ORANGE);
+        
+        Style estiloAgrupacion = doc.addStyle("AGRUPACION", null);
+        StyleConstants.setForeground(estiloAgrupacion, new Color(128, 0, 128)); // Morado
+        
+        Style estiloError = doc.addStyle("ERROR", null);
+        StyleConstants.setForeground(estiloError, Color.RED);
+        StyleConstants.setBackground(estiloError, new Color(255, 255, 200)); // Fondo amarillo claro
+        StyleConstants.setBold(estiloError, true);
+        
+        Style estiloCadena = doc.addStyle("CADENA", null);
+        StyleConstants.setForeground(estiloCadena, new Color(163, 21, 21)); // Rojo oscuro
+        
+        Style estiloPuntuacion = doc.addStyle("PUNTUACION", null);
+        StyleConstants.setForeground(estiloPuntuacion, new Color(128, 0, 128)); // Morado
+        
+        Style[] todos = {
+            estiloNormal, estiloReservada, estiloIdentificador, estiloEntero, estiloDecimal,
+            estiloComentario, estiloOperador, estiloAgrupacion, estiloError, estiloCadena, estiloPuntuacion
+        };
+        
+        // Los tipos sin estilo propio (índice 0) se ven con el estilo normal
+        estiloPorTipo[TokenType.PALABRA_RESERVADA.ordinal()] = 1;
+        estiloPorTipo[TokenType.IDENTIFICADOR.ordinal()] = 2;
+        estiloPorTipo[TokenType.ENTERO.ordinal()] = 3;
+        estiloPorTipo[TokenType.DECIMAL.ordinal()] = 4;
+        estiloPorTipo[TokenType.COMENTARIO_LINEA.ordinal()] = 5;
+        estiloPorTipo[TokenType.COMENTARIO_BLOQUE.ordinal()] = 5;
+        estiloPorTipo[TokenType.OPERADOR.ordinal()] = 6;
+        estiloPorTipo[TokenType.AGRUPACION.ordinal()] = 7;
+        estiloPorTipo[TokenType.ERROR.ordinal()] = 8;
+        estiloPorTipo[TokenType.CADENA.ordinal()] = 9;
+        estiloPorTipo[TokenType.PUNTUACION.ordinal()] = 10;
+        return todos;
+    }
+}
@@ -0,0 +1,125 @@
+package gui;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Conjunto de zonas [inicio, fin) de un texto, ordenadas y sin solaparse, cada
+// una con un valor (por ejemplo, el estilo que tiene aplicado). Sirve para saber
+// qué partes del documento ya tienen los estilos correctos y llevarlas de un
+// texto al siguiente cuando hay ediciones. Las zonas son arreglos {inicio, fin, valor}.
+class ZonasTexto {
+    private final ArrayList<int[]> zonas = new ArrayList<>();
+    
+    boolean isEmpty() {
+        return zonas.isEmpty();
+    }
+    
+    List<int[]> getZonas() {
+        return zonas;
+    }
+    
+    void clear() {
+        zonas.clear();
+    }
+    
+    // Índice de la primera zona que termina después de "offset"
+    int indiceDesde(int offset) {
+        int bajo = 0;
+        int alto = zonas.size();
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (zonas.get(medio)[1] <= offset) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+    
+    // Une [inicio, fin) al conjunto, fundiéndola con las zonas que toca (sin valor)
+    void agregar(int inicio, int fin) {
+        if (fin <= inicio) return;
+        int i = indiceDesde(inicio - 1);
+        int j = i;
+        while (j < zonas.size() && zonas.get(j)[0] <= fin) {
+            inicio = Math.min(inicio, zonas.get(j)[0]);
+            fin = Math.max(fin, zonas.get(j)[1]);
+            j++;
+        }
+        zonas.subList(i, j).clear();
+        zonas.add(i, new int[] { inicio, fin, 0 });
+    }
+    
+    void agregarTodas(ZonasTexto otras) {
+        for (int[] zona : otras.zonas) {
+            agregar(zona[0], zona[1]);
+        }
+    }
+    
+    // Asigna "valor" a [inicio, fin), reemplazando lo que hubiera ahí
+    void asignar(int inicio, int fin, int valor) {
+        if (fin <= inicio) return;
+        quitar(inicio, fin);
+        zonas.add(indiceDesde(inicio), new int[] { inicio, fin, valor });
+    }
+    
+    void quitar(int inicio, int fin) {
+        if (fin <= inicio) return;
+        int i = indiceDesde(inicio);
+        int j = i;
+        while (j < zonas.size() && zonas.get(j)[0] < fin) {
+            j++;
+        }
+        if (i == j) return;
+        
+        int[] primera = zonas.get(i);
+        int[] ultima = zonas.get(j - 1);
+        List<int[]> restos = new ArrayList<>(2);
+        if (primera[0] < inicio) restos.add(new int[] { primera[0], inicio, primera[2] });
+        if (ultima[1] > fin) restos.add(new int[] { fin, ultima[1], ultima[2] });
+        
+        zonas.subList(i, j).clear();
+        zonas.addAll(i, restos);
+    }
+    
+    // Lleva las zonas al texto posterior a una edición. Lo eliminado desaparece
+    // y lo insertado queda fuera de toda zona. Las zonas siguientes solo se
+    // desplazan, sin crear objetos.
+    void desplazar(int offset, int eliminados, int insertados) {
+        quitar(offset, offset + eliminados);
+        
+        int i = indiceDesde(offset);
+        if (i < zonas.size() && zonas.get(i)[0] < offset && insertados > 0) {
+            // La inserción cae dentro de una zona: se parte en dos
+            int[] zona = zonas.get(i);
+            zonas.add(i + 1, new int[] { offset, zona[1], zona[2] });
+            zona[1] = offset;
+            i++;
+        }
+        
+        int delta = insertados - eliminados;
+        if (delta == 0) return;
+        for (int k = i; k < zonas.size(); k++) {
+            int[] zona = zonas.get(k);
+            if (zona[0] >= offset) {
+                zona[0] += delta;
+                zona[1] += delta;
+            }
+        }
+    }
+    
+    // Partes de [inicio, fin) que no están en ninguno de los conjuntos dados
+    static ZonasTexto faltantes(int inicio, int fin, List<ZonasTexto> cubiertas) {
+        ZonasTexto resultado = new ZonasTexto();
+        resultado.agregar(inicio, fin);
+        for (ZonasTexto cubierta : cubiertas) {
+            for (int k = cubierta.indiceDesde(inicio); k < cubierta.zonas.size(); k++) {
+                int[] zona = cubierta.zonas.get(k);
+                if (zona[0] >= fin) break;
+                resultado.quitar(zona[0], zona[1]);
+            }
+        }
+        return resultado;
+    }
+}
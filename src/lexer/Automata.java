@@ -3,10 +3,14 @@ package lexer;
 import java.util.*;
 
 public class Automata {
+    // Motor de transiciones. COMPILED usa la tabla densa int[][] (sin boxing ni
+    // búsquedas en mapas); REFERENCE conserva el autómata original basado en
+    // Map para comparar resultados.
+    public enum Mode { COMPILED, REFERENCE }
+    
     private int currentState;
-    private int startState;
-    private Set<Integer> finalStates;
-    private Map<Integer, Map<Character, Integer>> transitionTable;
+    private final Mode mode;
+    private TraceLevel traceLevel = TraceLevel.FULL_TRANSITIONS;
     private StringBuilder currentLexeme;
     private List<String> transitionLog;
     
@@ -24,30 +28,59 @@ public class Automata {
     public static final int STATE_BLOCK_COMMENT_END = 10; // NUEVO: Cierre de bloque */
     public static final int STATE_ERROR = 99;
     
+    // Estados 0..10 indexan directamente las filas de la tabla compilada
+    private static final int NUM_STATES = STATE_BLOCK_COMMENT_END + 1;
+    // Alfabeto definido por la tabla de referencia: Latin-1
+    private static final int ALPHABET_SIZE = 256;
+    // Tamaño del mapa de clases: todo el plano multilingüe básico (BMP)
+    private static final int CHAR_CLASS_MAP_SIZE = 65536;
+    // Representante de "cualquier otro carácter no ASCII" para los caracteres > 255
+    private static final char NON_LATIN_REPRESENTATIVE = '\u0080';
+    
+    // Tabla de referencia (Map) y su versión compilada; son inmutables y compartidas
+    private static final Map<Integer, Map<Character, Integer>> REFERENCE_TABLE = buildTransitions();
+    private static final byte[] CHAR_CLASSES = new byte[CHAR_CLASS_MAP_SIZE];
+    private static final int[][] COMPILED_TABLE = compile(REFERENCE_TABLE, CHAR_CLASSES);
+    private static final boolean[] FINAL_STATES = buildFinalStates();
+    
     // Palabras reservadas
     private static final Set<String> RESERVED_WORDS = Set.of(
         "SI", "ENTONCES", "PARA", "ESCRIBIR",
         "si", "entonces", "para", "escribir"
     );
+    private static final int MAX_RESERVED_LENGTH = RESERVED_WORDS.stream().mapToInt(String::length).max().getAsInt();
+    
+    // Lexemas de operador que se clasifican como puntuación o agrupación
+    private static final String PUNCTUATION = ".,;:";
+    private static final String GROUPING = "()[]{}";
     
     public Automata() {
-        initializeAutomata();
+        this(Mode.COMPILED);
+    }
+    
+    public Automata(Mode mode) {
+        this.mode = mode;
+        this.currentLexeme = new StringBuilder();
+        this.transitionLog = new ArrayList<>();
         reset();
     }
     
-    private void initializeAutomata() {
-        finalStates = new HashSet<>(Arrays.asList(
-            STATE_IDENTIFIER, STATE_INTEGER, STATE_DECIMAL, 
-            STATE_STRING, STATE_OPERATOR, STATE_LINE_COMMENT,
-            STATE_BLOCK_COMMENT, STATE_BLOCK_COMMENT_END  // AGREGADOS
-        ));
-        
-        transitionTable = new HashMap<>();
-        transitionLog = new ArrayList<>();
-        initializeTransitions();
+    private static boolean[] buildFinalStates() {
+        boolean[] finales = new boolean[NUM_STATES];
+        finales[STATE_IDENTIFIER] = true;
+        finales[STATE_INTEGER] = true;
+        finales[STATE_DECIMAL] = true;
+        finales[STATE_STRING] = true;
+        finales[STATE_OPERATOR] = true;
+        finales[STATE_LINE_COMMENT] = true;
+        finales[STATE_BLOCK_COMMENT] = true;
+        finales[STATE_BLOCK_COMMENT_END] = true;
+        return finales;
     }
     
-    private void initializeTransitions() {
+    private static Map<Integer, Map<Character, Integer>> buildTransitions() {
+        Map<Integer, Map<Character, Integer>> transitionTable = new HashMap<>();
+        
         // === ESTADO INICIAL (0) ===
         Map<Character, Integer> state0 = new HashMap<>();
         
@@ -122,10 +155,11 @@ public class Automata {
         // === ESTADO FIN DE COMENTARIO DE BLOQUE (10) ===
         Map<Character, Integer> state10 = new HashMap<>();
         state10.put('/', STATE_IDENTIFIER); // */ termina el comentario
-        // Si después de * no viene /, volvemos al comentario de bloque
+        // Si después de * no viene /, volvemos al comentario de bloque; otro *
+        // puede ser el fin (por ejemplo en "**/")
         for (char c = 0; c < 256; c++) {
             if (c != '/') {
-                state10.put(c, STATE_BLOCK_COMMENT);
+                state10.put(c, c == '*' ? STATE_BLOCK_COMMENT_END : STATE_BLOCK_COMMENT);
             }
         }
         transitionTable.put(STATE_BLOCK_COMMENT_END, state10);
@@ -168,15 +202,56 @@ public class Automata {
         Map<Character, Integer> state6 = new HashMap<>();
         // Los operadores son de un solo carácter
         transitionTable.put(STATE_OPERATOR, state6);
+        
+        return transitionTable;
+    }
+    
+    // Compila la tabla de referencia sobre clases de equivalencia de caracteres:
+    // dos caracteres pertenecen a la misma clase si producen la misma transición
+    // en todos los estados (letra, dígito, comilla, barra, asterisco, salto de
+    // línea, punto, operador, otro). Llena "clases" para todo el BMP y devuelve
+    // la matriz [estado][clase]; las transiciones ausentes son STATE_ERROR.
+    //
+    // Los caracteres fuera de Latin-1 se asignan a la clase de los demás
+    // caracteres no ASCII, así que dentro de cadenas y comentarios se aceptan
+    // en lugar de producir ERROR como en el modo REFERENCE.
+    private static int[][] compile(Map<Integer, Map<Character, Integer>> transitionTable, byte[] clases) {
+        Map<List<Integer>, Integer> clasePorColumna = new LinkedHashMap<>();
+        
+        for (char c = 0; c < ALPHABET_SIZE; c++) {
+            List<Integer> columna = new ArrayList<>(NUM_STATES);
+            for (int estado = 0; estado < NUM_STATES; estado++) {
+                Map<Character, Integer> transiciones = transitionTable.get(estado);
+                Integer destino = transiciones != null ? transiciones.get(c) : null;
+                columna.add(destino != null ? destino : STATE_ERROR);
+            }
+            
+            Integer clase = clasePorColumna.get(columna);
+            if (clase == null) {
+                clase = clasePorColumna.size();
+                clasePorColumna.put(columna, clase);
+            }
+            clases[c] = clase.byteValue();
+        }
+        Arrays.fill(clases, ALPHABET_SIZE, clases.length, clases[NON_LATIN_REPRESENTATIVE]);
+        
+        int[][] tabla = new int[NUM_STATES][clasePorColumna.size()];
+        for (Map.Entry<List<Integer>, Integer> entrada : clasePorColumna.entrySet()) {
+            List<Integer> columna = entrada.getKey();
+            for (int estado = 0; estado < NUM_STATES; estado++) {
+                tabla[estado][entrada.getValue()] = columna.get(estado);
+            }
+        }
+        return tabla;
     }
     
-    private void addRange(Map<Character, Integer> transitions, char start, char end, int state) {
+    private static void addRange(Map<Character, Integer> transitions, char start, char end, int state) {
         for (char c = start; c <= end; c++) {
             transitions.put(c, state);
         }
     }
     
-    private void addAllValidChars(Map<Character, Integer> transitions, int state) {
+    private static void addAllValidChars(Map<Character, Integer> transitions, int state) {
         // Letras
         addRange(transitions, 'a', 'z', state);
         addRange(transitions, 'A', 'Z', state);
@@ -191,12 +266,36 @@ public class Automata {
     
     public void reset() {
         currentState = STATE_INITIAL;
-        currentLexeme = new StringBuilder();
+        currentLexeme.setLength(0);
         transitionLog.clear();
     }
     
     public int transition(char c) {
-        Map<Character, Integer> stateTransitions = transitionTable.get(currentState);
+        if (mode == Mode.REFERENCE) {
+            return transitionReference(c);
+        }
+        
+        int nextState = currentState == STATE_ERROR
+            ? STATE_ERROR
+            : COMPILED_TABLE[currentState][CHAR_CLASSES[c]];
+        
+        if (nextState != STATE_ERROR) {
+            if (traceLevel == TraceLevel.FULL_TRANSITIONS) {
+                transitionLog.add(String.format("Me moví del estado %s al estado %s con el carácter '%c'", 
+                    getStateName(currentState), getStateName(nextState), c));
+            }
+        } else if (traceLevel != TraceLevel.OFF) {
+            transitionLog.add(String.format("ERROR: No hay transición del estado %s con el carácter '%c'", 
+                getStateName(currentState), c));
+        }
+        
+        currentState = nextState;
+        currentLexeme.append(c);
+        return nextState;
+    }
+    
+    private int transitionReference(char c) {
+        Map<Character, Integer> stateTransitions = REFERENCE_TABLE.get(currentState);
         String currentStateName = getStateName(currentState);
         
         if (stateTransitions != null && stateTransitions.containsKey(c)) {
@@ -204,9 +303,11 @@ public class Automata {
             String nextStateName = getStateName(nextState);
             
             // Registrar la transición
-            String log = String.format("Me moví del estado %s al estado %s con el carácter '%c'", 
-                currentStateName, nextStateName, c);
-            transitionLog.add(log);
+            if (traceLevel == TraceLevel.FULL_TRANSITIONS) {
+                String log = String.format("Me moví del estado %s al estado %s con el carácter '%c'", 
+                    currentStateName, nextStateName, c);
+                transitionLog.add(log);
+            }
             
             currentState = nextState;
             currentLexeme.append(c);
@@ -214,9 +315,11 @@ public class Automata {
             
         } else {
             // No hay transición para este carácter - ERROR
-            String log = String.format("ERROR: No hay transición del estado %s con el carácter '%c'", 
-                currentStateName, c);
-            transitionLog.add(log);
+            if (traceLevel != TraceLevel.OFF) {
+                String log = String.format("ERROR: No hay transición del estado %s con el carácter '%c'", 
+                    currentStateName, c);
+                transitionLog.add(log);
+            }
             
             currentState = STATE_ERROR;
             currentLexeme.append(c);
@@ -242,8 +345,22 @@ public class Automata {
     }
 }
     
+    // Vuelve a un estado anterior del mismo recorrido sin repetir transiciones. El
+    // lexema de ese momento es un prefijo del actual (transition() solo agrega al
+    // final), así que basta con recortarlo a "lexemeLength" caracteres. El log de
+    // transiciones no se guarda en el estado y queda vacío.
+    public void restore(int state, int lexemeLength) {
+        if (lexemeLength < 0 || lexemeLength > currentLexeme.length()) {
+            throw new IllegalArgumentException("Longitud de lexema " + lexemeLength
+                + ", lexema actual de " + currentLexeme.length());
+        }
+        currentState = state;
+        currentLexeme.setLength(lexemeLength);
+        transitionLog.clear();
+    }
+    
     public boolean isFinalState() {
-        return finalStates.contains(currentState);
+        return currentState != STATE_ERROR && FINAL_STATES[currentState];
     }
     
     public boolean isErrorState() {
@@ -251,15 +368,24 @@ public class Automata {
     }
     
     public int getCurrentState() { return currentState; }
+    public Mode getMode() { return mode; }
+    public TraceLevel getTraceLevel() { return traceLevel; }
+    public void setTraceLevel(TraceLevel traceLevel) { this.traceLevel = traceLevel; }
+    public boolean hasTransitionLog() { return !transitionLog.isEmpty(); }
     public String getCurrentLexeme() { return currentLexeme.toString(); }
+    public int getLexemeLength() { return currentLexeme.length(); }
     public List<String> getTransitionLog() { return new ArrayList<>(transitionLog); }
     
     public TokenType getTokenType() {
-    String lexeme = currentLexeme.toString();
-    
+    // El lexema solo se copia en los estados que lo necesitan, y solo si es corto:
+    // uno más largo que cualquier palabra reservada o signo no puede serlo, así que
+    // preguntar el tipo en cada paso no copia un lexema que crece
     switch (currentState) {
         case STATE_IDENTIFIER:
-            return RESERVED_WORDS.contains(lexeme) ? TokenType.PALABRA_RESERVADA : TokenType.IDENTIFICADOR;
+            if (currentLexeme.length() > MAX_RESERVED_LENGTH) {
+                return TokenType.IDENTIFICADOR;
+            }
+            return RESERVED_WORDS.contains(currentLexeme.toString()) ? TokenType.PALABRA_RESERVADA : TokenType.IDENTIFICADOR;
             
         case STATE_INTEGER:
             return TokenType.ENTERO;
@@ -271,9 +397,13 @@ public class Automata {
             return TokenType.CADENA;
             
         case STATE_OPERATOR:
-            if (".,;:".contains(lexeme)) {
+            if (currentLexeme.length() > GROUPING.length()) {
+                return TokenType.OPERADOR;
+            }
+            String lexeme = currentLexeme.toString();
+            if (PUNCTUATION.contains(lexeme)) {
                 return TokenType.PUNTUACION;
-            } else if ("()[]{}".contains(lexeme)) {
+            } else if (GROUPING.contains(lexeme)) {
                 return TokenType.AGRUPACION;
             } else {
                 return TokenType.OPERADOR;
@@ -0,0 +1,218 @@
+package lexer;
+
+// Análisis léxico incremental para el editor. Conserva los tokens del último
+// análisis y, cuando el texto cambia, vuelve a analizar solo la zona afectada:
+// desde el inicio de la línea donde empieza la edición (o desde el comentario de
+// bloque que la contiene) hasta el primer inicio de línea, después de la edición,
+// donde el análisis nuevo y el anterior coinciden en estado inicial. A partir de
+// ahí los tokens anteriores siguen siendo válidos y solo se desplazan.
+//
+// Un inicio de línea es un punto de sincronización porque el salto de línea
+// cierra cualquier token salvo el comentario de bloque, y lo que venga después
+// no depende del texto anterior.
+public class IncrementalLexer {
+    private final TokenBuffer tokens = new TokenBuffer();
+    private final Automata automata;
+    private boolean analizado = false;
+    
+    // El texto analizado termina dentro de un comentario de bloque sin cerrar.
+    // En ese caso el fin del texto no es un punto de sincronización.
+    private boolean comentarioAbiertoAlFinal = false;
+    
+    // Edición pendiente (varias ediciones se acumulan en una sola): el texto
+    // anterior [inicioEdicion, finAnterior) ahora es [inicioEdicion, finNuevo)
+    private boolean hayEdicion = false;
+    private int inicioEdicion;
+    private int finAnterior;
+    private int finNuevo;
+    
+    // Zona que cambió en la última actualización: texto [inicioCambio, finCambio)
+    // del texto nuevo, cubierto por los tokens [primerTokenCambiado, finTokensCambiados)
+    private int inicioCambio;
+    private int finCambio;
+    private int primerTokenCambiado;
+    private int finTokensCambiados;
+    
+    // Tokens que se van reconociendo en la zona que se vuelve a analizar
+    private TokenBuffer nuevos;
+    
+    public IncrementalLexer() {
+        automata = new Automata();
+        automata.setTraceLevel(TraceLevel.OFF);
+    }
+    
+    // Análisis completo; descarta cualquier edición pendiente
+    public void analyze(CharSequence texto) {
+        tokens.clear();
+        tokens.setSource(texto);
+        nuevos = tokens;
+        TokenScanner scanner = new TokenScanner(automata, receptor);
+        scanner.escanear(texto, 0, texto.length());
+        comentarioAbiertoAlFinal = scanner.enComentarioDeBloque();
+        scanner.finalizar();
+        
+        analizado = true;
+        hayEdicion = false;
+        inicioCambio = 0;
+        finCambio = texto.length();
+        primerTokenCambiado = 0;
+        finTokensCambiados = tokens.size();
+    }
+    
+    // Registra una edición (los datos de un DocumentEvent) sobre el texto ya
+    // analizado más las ediciones pendientes. No analiza nada hasta update().
+    public void textChanged(int offset, int removedLength, int insertedLength) {
+        if (!hayEdicion) {
+            inicioEdicion = offset;
+            finAnterior = offset + removedLength;
+            finNuevo = offset + insertedLength;
+            hayEdicion = true;
+            return;
+        }
+        
+        // Combinar con la edición pendiente: la zona combinada cubre ambas
+        int fin = Math.max(finNuevo, offset + removedLength);
+        finAnterior += fin - finNuevo;
+        finNuevo = fin + insertedLength - removedLength;
+        inicioEdicion = Math.min(inicioEdicion, offset);
+    }
+    
+    public boolean hasPendingEdit() {
+        return hayEdicion || !analizado;
+    }
+    
+    // Actualiza los tokens para "texto", que debe ser el texto con las ediciones
+    // registradas. Sin análisis previo hace un análisis completo.
+    public void update(CharSequence texto) {
+        if (!analizado) {
+            analyze(texto);
+            return;
+        }
+        if (!hayEdicion) {
+            inicioCambio = finCambio = 0;
+            primerTokenCambiado = finTokensCambiados = 0;
+            return;
+        }
+        hayEdicion = false;
+        
+        int delta = finNuevo - finAnterior;
+        int longitudAnterior = texto.length() - delta;
+        
+        // Punto de reinicio: inicio de la línea de la edición. Antes de la
+        // edición el texto no cambió, así que los tokens anteriores sirven.
+        int reinicio = inicioEdicion;
+        while (reinicio > 0 && texto.charAt(reinicio - 1) != '\n') {
+            reinicio--;
+        }
+        int primero = tokens.indexAtOrAfter(reinicio);
+        int fila;
+        int columna = 1;
+        if (primero > 0 && !limpioEnAnterior(reinicio, primero, longitudAnterior)) {
+            // La línea empieza dentro de un comentario de bloque: se reinicia en él
+            primero--;
+            reinicio = tokens.getOffset(primero);
+            fila = tokens.getRow(primero);
+            columna = tokens.getColumn(primero);
+        } else if (primero > 0) {
+            int previo = tokens.getOffset(primero - 1);
+            fila = tokens.getRow(primero - 1) + contarSaltos(texto, previo, reinicio);
+        } else {
+            fila = 1 + contarSaltos(texto, 0, reinicio);
+        }
+        
+        nuevos = new TokenBuffer(texto);
+        TokenScanner scanner = new TokenScanner(automata, receptor);
+        scanner.posicionar(reinicio, fila, columna, reinicio > 0 ? texto.charAt(reinicio - 1) : TokenScanner.FIN);
+        
+        int longitud = texto.length();
+        int posicion = reinicio;
+        while (posicion < longitud) {
+            int salto = indiceDeSalto(texto, posicion);
+            int finLinea = salto < 0 ? longitud : salto + 1;
+            scanner.escanear(texto, posicion, finLinea);
+            posicion = finLinea;
+            
+            // ¿Inicio de línea fuera de la edición donde ambos análisis están en estado inicial?
+            if (salto >= 0 && salto >= finNuevo && !scanner.enComentarioDeBloque()) {
+                int siguiente = tokens.indexAtOrAfter(posicion - delta);
+                if (limpioEnAnterior(posicion - delta, siguiente, longitudAnterior)) {
+                    int deltaFila = 0;
+                    if (siguiente < tokens.size()) {
+                        int inicioNuevo = tokens.getOffset(siguiente) + delta;
+                        int filaNueva = scanner.getFila() + contarSaltos(texto, posicion, inicioNuevo);
+                        deltaFila = filaNueva - tokens.getRow(siguiente);
+                    }
+                    empalmar(texto, primero, siguiente, delta, deltaFila, reinicio, posicion);
+                    return;
+                }
+            }
+        }
+        
+        // Se llegó al final sin sincronizar: se reemplaza todo desde el reinicio
+        comentarioAbiertoAlFinal = scanner.enComentarioDeBloque();
+        scanner.finalizar();
+        empalmar(texto, primero, tokens.size(), delta, 0, reinicio, longitud);
+    }
+    
+    public TokenBuffer getTokenBuffer() { return tokens; }
+    
+    // Zona del texto y rango de tokens que cambiaron en la última actualización
+    public int getChangeStart() { return inicioCambio; }
+    public int getChangeEnd() { return finCambio; }
+    public int getFirstChangedToken() { return primerTokenCambiado; }
+    public int getChangedTokenEnd() { return finTokensCambiados; }
+    
+    private void empalmar(CharSequence texto, int desde, int hasta, int delta, int deltaFila,
+                          int inicio, int fin) {
+        tokens.replace(desde, hasta, nuevos, delta, deltaFila);
+        tokens.setSource(texto);
+        
+        inicioCambio = inicio;
+        finCambio = fin;
+        primerTokenCambiado = desde;
+        finTokensCambiados = desde + nuevos.size();
+        nuevos = null;
+    }
+    
+    // Indica si en el análisis anterior "posicion" estaba fuera de todo token;
+    // "siguiente" es el primer token que empieza en "posicion" o después
+    private boolean limpioEnAnterior(int posicion, int siguiente, int longitudAnterior) {
+        if (siguiente == 0) return true;
+        int fin = finDeToken(siguiente - 1);
+        return fin < posicion || (fin == posicion && !(posicion == longitudAnterior && comentarioAbiertoAlFinal));
+    }
+    
+    private int finDeToken(int i) {
+        return tokens.getOffset(i) + tokens.getLength(i);
+    }
+    
+    private static int indiceDeSalto(CharSequence texto, int desde) {
+        for (int i = desde; i < texto.length(); i++) {
+            if (texto.charAt(i) == '\n') return i;
+        }
+        return -1;
+    }
+    
+    private static int contarSaltos(CharSequence texto, int desde, int hasta) {
+        int saltos = 0;
+        for (int i = desde; i < hasta; i++) {
+            if (texto.charAt(i) == '\n') saltos++;
+        }
+        return saltos;
+    }
+    
+    private final TokenScanner.Listener receptor = new TokenScanner.Listener() {
+        public void tokenReconocido(Automata automata, TokenType tipo, int fila, int columna, int offset) {
+            nuevos.add(tipo, offset, automata.getLexemeLength(), fila, columna);
+        }
+        
+        public void lexemaInvalido(Automata automata, int fila, int columna, int offset) {
+            nuevos.add(TokenType.ERROR, offset, automata.getLexemeLength(), fila, columna);
+        }
+        
+        public void errorDeTransicion(Automata automata, char caracter, char anterior, char siguiente,
+                                      int fila, int columna, int offset) {
+            nuevos.add(TokenType.ERROR, offset, automata.getLexemeLength(), fila, columna);
+        }
+    };
+}
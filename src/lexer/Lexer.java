@@ -1,197 +1,380 @@
 package lexer;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.IntConsumer;
 
 public class Lexer {
-    private List<Token> tokens;
+    // Tamaño mínimo de cada bloque en el análisis paralelo; textos de menos de
+    // dos bloques se analizan de forma secuencial
+    private static final int TAMANO_MINIMO_BLOQUE = 1 << 16;
+    
+    private TokenBuffer tokens;
     private List<String> errores;
     private List<String> logAnalisis;
-    private Map<String, Integer> conteoLexemas;
+    // Clave: par (lexema, tipo); un lexema puede contener cualquier carácter
+    private Map<Map.Entry<String, TokenType>, Integer> conteoLexemas;
     private Map<String, Integer> sugerenciasAplicadas;
+    private final Automata.Mode modoAutomata;
+    private TraceLevel nivelTraza = TraceLevel.FULL_TRANSITIONS;
+    private LineIndex indiceLineas;
     
     public Lexer() {
-        tokens = new ArrayList<>();
+        this(Automata.Mode.COMPILED);
+    }
+    
+    /**
+     * @param modoAutomata motor de transiciones a usar; REFERENCE sirve para
+     *                     validar la tabla compilada contra el autómata original
+     */
+    public Lexer(Automata.Mode modoAutomata) {
+        this.modoAutomata = modoAutomata;
+        tokens = new TokenBuffer();
         errores = new ArrayList<>();
         logAnalisis = new ArrayList<>();
-        conteoLexemas = new HashMap<>();
-        sugerenciasAplicadas = new HashMap<>();
+        // Orden de primera aparición: el reporte sale igual en el análisis secuencial y el paralelo
+        conteoLexemas = new LinkedHashMap<>();
+        sugerenciasAplicadas = new LinkedHashMap<>();
     }
     
     public void analyze(String textoEntrada) {
+        iniciarAnalisis();
+        tokens.setSource(textoEntrada);
+        
+        if (esTextoVacio(textoEntrada)) {
+            logAnalisis.add("Texto de entrada vacío");
+            return;
+        }
+        
+        // Los comentarios se reconocen en la misma pasada que el resto de tokens
+        crearScanner().escanear(textoEntrada);
+        terminarAnalisis();
+    }
+    
+    // Igual que analyze(String), avisando a "progreso" el porcentaje del texto ya
+    // analizado después de cada bloque. Para interrumpir el análisis (por ejemplo,
+    // si se canceló) basta con que "progreso" lance una excepción.
+    public void analyze(String textoEntrada, IntConsumer progreso) {
+        iniciarAnalisis();
+        tokens.setSource(textoEntrada);
+        
+        if (esTextoVacio(textoEntrada)) {
+            logAnalisis.add("Texto de entrada vacío");
+            progreso.accept(100);
+            return;
+        }
+        
+        TokenScanner scanner = crearScanner();
+        int longitud = textoEntrada.length();
+        for (int desde = 0; desde < longitud; desde += TAMANO_MINIMO_BLOQUE) {
+            int hasta = Math.min(longitud, desde + TAMANO_MINIMO_BLOQUE);
+            scanner.escanear(textoEntrada, desde, hasta);
+            progreso.accept((int) ((long) hasta * 100 / longitud));
+        }
+        scanner.finalizar();
+        terminarAnalisis();
+    }
+    
+    public void analyzeParallel(String textoEntrada) {
+        analyzeParallel(textoEntrada, ForkJoinPool.commonPool());
+    }
+    
+    // Análisis paralelo con resultado idéntico al de analyze(String). El texto se
+    // divide en bloques que terminan en un salto de línea, suponiendo de forma
+    // especulativa que cada corte queda fuera de un comentario de bloque (el único
+    // token que cruza líneas). Los bloques se analizan en el pool y luego, en orden,
+    // se verifica la suposición: si un bloque termina dentro de un comentario, su
+    // scanner sigue con el texto del bloque siguiente (que se descarta) en vez de
+    // volver a empezar, así que un comentario enorme se recorre una sola vez más.
+    public void analyzeParallel(String textoEntrada, ForkJoinPool pool) {
+        analyzeParallel(textoEntrada, pool, TAMANO_MINIMO_BLOQUE);
+    }
+    
+    void analyzeParallel(String textoEntrada, ForkJoinPool pool, int tamanoMinimoBloque) {
+        // Con un solo hilo la especulación no se paralelizaría: solo sería trabajo extra
+        if (textoEntrada == null || textoEntrada.length() < 2 * tamanoMinimoBloque || pool.getParallelism() < 2) {
+            analyze(textoEntrada);
+            return;
+        }
+        
+        iniciarAnalisis();
+        tokens.setSource(textoEntrada);
+        
+        if (esTextoVacio(textoEntrada)) {
+            logAnalisis.add("Texto de entrada vacío");
+            return;
+        }
+        
+        // Cortes candidatos: el primer salto de línea después de cada tamaño objetivo
+        int longitud = textoEntrada.length();
+        int objetivo = Math.max(tamanoMinimoBloque, longitud / (pool.getParallelism() * 4));
+        List<int[]> rangos = new ArrayList<>();
+        int desde = 0;
+        while (desde < longitud) {
+            int salto = desde + objetivo < longitud ? textoEntrada.indexOf('\n', desde + objetivo) : -1;
+            int hasta = salto < 0 ? longitud : salto + 1;
+            rangos.add(new int[] { desde, hasta });
+            desde = hasta;
+        }
+        
+        // Fila inicial de cada bloque: se cuentan los saltos de línea en paralelo
+        List<Callable<Integer>> conteos = new ArrayList<>();
+        for (int[] rango : rangos) {
+            conteos.add(() -> contarSaltos(textoEntrada, rango[0], rango[1]));
+        }
+        List<Integer> saltos = ejecutar(pool, conteos);
+        
+        int[] filaInicial = new int[rangos.size()];
+        filaInicial[0] = 1;
+        for (int i = 1; i < rangos.size(); i++) {
+            filaInicial[i] = filaInicial[i - 1] + saltos.get(i - 1);
+        }
+        
+        List<Callable<BloqueAnalizado>> analisis = new ArrayList<>();
+        for (int i = 0; i < rangos.size(); i++) {
+            int[] rango = rangos.get(i);
+            int fila = filaInicial[i];
+            analisis.add(() -> analizarBloque(textoEntrada, rango[0], rango[1], fila));
+        }
+        List<BloqueAnalizado> bloques = new ArrayList<>(ejecutar(pool, analisis));
+        
+        // Verificación en orden: el bloque i empieza en un corte válido porque el
+        // bloque i - 1 ya se comprobó (o se extendió) hasta terminar fuera de un comentario
+        for (int i = 0; i < bloques.size(); i++) {
+            BloqueAnalizado actual = bloques.get(i);
+            while (actual.scanner.enComentarioDeBloque() && i + 1 < bloques.size()) {
+                BloqueAnalizado siguiente = bloques.remove(i + 1);
+                actual.scanner.escanear(textoEntrada, siguiente.desde, siguiente.hasta);
+            }
+            actual.scanner.finalizar();
+            incorporar(actual.lexer);
+        }
+        
+        terminarAnalisis();
+    }
+    
+    // Resultado parcial de un bloque del análisis paralelo. El scanner queda sin
+    // finalizar para poder seguir con el bloque siguiente si el corte cayó en un comentario.
+    private static class BloqueAnalizado {
+        final int desde;
+        final int hasta;
+        final Lexer lexer;
+        final TokenScanner scanner;
+        
+        BloqueAnalizado(int desde, int hasta, Lexer lexer, TokenScanner scanner) {
+            this.desde = desde;
+            this.hasta = hasta;
+            this.lexer = lexer;
+            this.scanner = scanner;
+        }
+    }
+    
+    private BloqueAnalizado analizarBloque(String texto, int desde, int hasta, int filaInicial) {
+        Lexer parcial = new Lexer(modoAutomata);
+        parcial.nivelTraza = nivelTraza;
+        parcial.tokens.setSource(texto);
+        
+        TokenScanner scanner = parcial.crearScanner();
+        scanner.posicionar(desde, filaInicial, 1, desde > 0 ? texto.charAt(desde - 1) : TokenScanner.FIN);
+        scanner.escanear(texto, desde, hasta);
+        
+        return new BloqueAnalizado(desde, hasta, parcial, scanner);
+    }
+    
+    // Agrega al final los resultados de un bloque ya verificado
+    private void incorporar(Lexer parcial) {
+        tokens.addAll(parcial.tokens);
+        errores.addAll(parcial.errores);
+        logAnalisis.addAll(parcial.logAnalisis);
+        for (Map.Entry<Map.Entry<String, TokenType>, Integer> entrada : parcial.conteoLexemas.entrySet()) {
+            conteoLexemas.merge(entrada.getKey(), entrada.getValue(), Integer::sum);
+        }
+        for (Map.Entry<String, Integer> entrada : parcial.sugerenciasAplicadas.entrySet()) {
+            sugerenciasAplicadas.merge(entrada.getKey(), entrada.getValue(), Integer::sum);
+        }
+    }
+    
+    private static int contarSaltos(String texto, int desde, int hasta) {
+        int saltos = 0;
+        for (int i = desde; i < hasta; i++) {
+            if (texto.charAt(i) == '\n') saltos++;
+        }
+        return saltos;
+    }
+    
+    private static <T> List<T> ejecutar(ForkJoinPool pool, List<Callable<T>> tareas) {
+        List<T> resultados = new ArrayList<>(tareas.size());
+        try {
+            for (Future<T> futuro : pool.invokeAll(tareas)) {
+                resultados.add(futuro.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Análisis paralelo interrumpido");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error en el análisis paralelo", e.getCause());
+        }
+        return resultados;
+    }
+    
+    // Equivale a texto.trim().isEmpty() sin copiar el texto
+    private static boolean esTextoVacio(String texto) {
+        if (texto == null) return true;
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) > ' ') return false;
+        }
+        return true;
+    }
+    
+    // Analiza un archivo UTF-8 (o ASCII) mapeándolo en memoria: los bytes se
+    // decodifican directo hacia el autómata, sin leer el archivo a un String
+    public void analyze(Path archivo) throws IOException {
+        iniciarAnalisis();
+        tokens.setSource(null); // Los lexemas se guardan en el buffer
+        
+        if (!MappedFileScanner.escanear(archivo, crearScanner())) {
+            // Solo blancos: mismo resultado que analyze(String), sin lo que haya
+            // dejado algún carácter de control
+            iniciarAnalisis();
+            logAnalisis.add("Texto de entrada vacío");
+            return;
+        }
+        
+        terminarAnalisis();
+    }
+    
+    private void iniciarAnalisis() {
         // Reiniciar listas
         tokens.clear();
         errores.clear();
         logAnalisis.clear();
         conteoLexemas.clear();
         sugerenciasAplicadas.clear();
+        indiceLineas = null;
         
         logAnalisis.add("=== INICIANDO ANÁLISIS LÉXICO ===");
+    }
+    
+    private TokenScanner crearScanner() {
+        Automata automata = new Automata(modoAutomata);
+        automata.setTraceLevel(nivelTraza);
+        return new TokenScanner(automata, receptor);
+    }
+    
+    private void terminarAnalisis() {
+        logAnalisis.add("=== ANÁLISIS COMPLETADO ===");
+        logAnalisis.add("Total tokens: " + tokens.size());
+        logAnalisis.add("Total errores: " + errores.size());
+        if (!sugerenciasAplicadas.isEmpty()) {
+            logAnalisis.add("Sugerencias aplicadas: " + sugerenciasAplicadas.size());
+        }
+    }
+    
+    // Recibe los lexemas que termina el TokenScanner y arma tokens, errores y log
+    private final TokenScanner.Listener receptor = new TokenScanner.Listener() {
+        public void tokenReconocido(Automata automata, TokenType tipo, int fila, int columna, int offset) {
+            procesarLexemaConLog(automata, tipo, fila, columna, offset);
+        }
         
-        if (textoEntrada == null || textoEntrada.trim().isEmpty()) {
-            logAnalisis.add("Texto de entrada vacío");
-            return;
+        public void lexemaInvalido(Automata automata, int fila, int columna, int offset) {
+            procesarLexemaConLog(automata, null, fila, columna, offset);
+        }
+        
+        public void errorDeTransicion(Automata automata, char caracter, char anterior, char siguiente,
+                                      int fila, int columna, int offset) {
+            procesarErrorDeTransicion(automata, caracter, anterior, siguiente, fila, columna, offset);
         }
+    };
+    
+    private void procesarErrorDeTransicion(Automata automata, char caracterActual, char anterior, char siguiente,
+                                           int fila, int columnaInicio, int offset) {
+        // Error encontrado - CON SUGERENCIAS MEJORADAS
+        String lexemaError = automata.getCurrentLexeme();
         
-        // Preprocesar: manejar comentarios primero
-        String textoProcesado = preprocesarComentarios(textoEntrada);
+        String sugerencia = generarSugerencia(lexemaError, caracterActual, fila, columnaInicio);
+        String sugerenciaContexto = obtenerSugerenciaContexto(anterior, siguiente);
         
-        Automata automata = new Automata();
-        int fila = 1;
-        int columna = 1;
-        int columnaInicio = 1;
+        String mensajeError = String.format("ERROR en Fila %d, Columna %d: '%s'\n   %s\n   %s", 
+            fila, columnaInicio, lexemaError, sugerencia, sugerenciaContexto);
         
-        StringBuilder lexemaActual = new StringBuilder();
-        boolean enToken = false;
+        errores.add(mensajeError);
+        if (nivelTraza != TraceLevel.OFF) {
+            logAnalisis.add(mensajeError);
+        }
         
-        for (int i = 0; i < textoProcesado.length(); i++) {
-            char caracterActual = textoProcesado.charAt(i);
-            
-            // Manejo de filas y columnas
-            if (caracterActual == '\n') {
-                if (enToken) {
-                    procesarLexemaConLog(automata, lexemaActual, fila, columnaInicio);
-                    automata.reset();
-                    lexemaActual.setLength(0);
-                    enToken = false;
-                }
-                fila++;
-                columna = 1;
-                columnaInicio = 1;
-                continue;
+        // Mostrar movimientos del autómata para el error
+        if (automata.hasTransitionLog()) {
+            List<String> transiciones = automata.getTransitionLog();
+            logAnalisis.add("--- Movimientos del autómata (ERROR):");
+            for (String transicion : transiciones) {
+                logAnalisis.add("  " + transicion);
             }
-            
-            // Ignorar espacios y tabs
-            if (caracterActual == ' ' || caracterActual == '\t' || caracterActual == '\r') {
-                if (enToken) {
-                    procesarLexemaConLog(automata, lexemaActual, fila, columnaInicio);
-                    automata.reset();
-                    lexemaActual.setLength(0);
-                    enToken = false;
-                }
-                columna++;
-                continue;
+        }
+        
+        agregarToken(TokenType.ERROR, lexemaError, fila, columnaInicio, offset);
+        contarLexema(lexemaError, TokenType.ERROR);
+    }
+    
+    // tipo: tipo del token reconocido, o null si el lexema terminó en un estado
+    // que no es final y debe reportarse como error
+    private void procesarLexemaConLog(Automata automata, TokenType tipo, int fila, int columna, int offset) {
+        String lexemaStr = automata.getCurrentLexeme();
+        
+        // Mostrar movimientos del autómata (solo existen si el nivel de traza los registra)
+        List<String> transiciones = automata.hasTransitionLog()
+            ? automata.getTransitionLog()
+            : Collections.emptyList();
+        if (!transiciones.isEmpty()) {
+            logAnalisis.add("--- Movimientos del autómata para: '" + lexemaStr + "'");
+            for (String transicion : transiciones) {
+                logAnalisis.add("  " + transicion);
             }
+        }
+        
+        // El autómata ya consumió el lexema en el ciclo principal: se
+        // clasifica con el estado en el que terminó, sin volver a recorrerlo
+        if (tipo != null) {
+            agregarToken(tipo, lexemaStr, fila, columna, offset);
+            contarLexema(lexemaStr, tipo);
             
-            // Procesar carácter con el autómata
-            if (!enToken) {
-                columnaInicio = columna;
-                enToken = true;
+            // Registrar en log
+            if (nivelTraza.compareTo(TraceLevel.TOKENS) >= 0) {
+                String mensajeLog = String.format("Token reconocido: %s '%s' en Fila %d, Columna %d", 
+                    tipo, lexemaStr, fila, columna);
+                logAnalisis.add(mensajeLog);
             }
+        } else {
+            // Error en el lexema - CON SUGERENCIAS
+            String sugerencia = generarSugerencia(lexemaStr, lexemaStr.charAt(0), fila, columna);
+            char siguiente = lexemaStr.length() > 1 ? lexemaStr.charAt(1) : TokenScanner.FIN;
+            String sugerenciaContexto = obtenerSugerenciaContexto(TokenScanner.FIN, siguiente);
             
-            int resultado = automata.transition(caracterActual);
-            lexemaActual.append(caracterActual);
+            String mensajeError = String.format("ERROR en Fila %d, Columna %d: '%s'\n   %s\n   %s", 
+                fila, columna, lexemaStr, sugerencia, sugerenciaContexto);
             
-            if (automata.isErrorState()) {
-                // Error encontrado - CON SUGERENCIAS MEJORADAS
-                String lexemaError = lexemaActual.toString();
-                
-                String sugerencia = generarSugerencia(lexemaError, caracterActual, fila, columnaInicio);
-                String sugerenciaContexto = obtenerSugerenciaContexto(textoProcesado, i);
-                
-                String mensajeError = String.format("ERROR en Fila %d, Columna %d: '%s'\n   %s\n   %s", 
-                    fila, columnaInicio, lexemaError, sugerencia, sugerenciaContexto);
-                
-                errores.add(mensajeError);
+            errores.add(mensajeError);
+            if (nivelTraza != TraceLevel.OFF) {
                 logAnalisis.add(mensajeError);
-                
-                // Mostrar movimientos del autómata para el error
-                List<String> transiciones = automata.getTransitionLog();
-                if (!transiciones.isEmpty()) {
-                    logAnalisis.add("--- Movimientos del autómata (ERROR):");
-                    for (String transicion : transiciones) {
-                        logAnalisis.add("  " + transicion);
-                    }
-                }
-                
-                Token tokenError = new Token(TokenType.ERROR, lexemaError, fila, columnaInicio);
-                tokens.add(tokenError);
-                contarLexema(lexemaError, TokenType.ERROR);
-                
-                automata.reset();
-                lexemaActual.setLength(0);
-                enToken = false;
-                
-            } else if (automata.isFinalState()) {
-                // Verificar si es el final de un token
-                boolean esFinDeToken = esFinDeToken(i, textoProcesado, automata, caracterActual);
-                
-                if (esFinDeToken) {
-                    procesarLexemaConLog(automata, lexemaActual, fila, columnaInicio);
-                    automata.reset();
-                    lexemaActual.setLength(0);
-                    enToken = false;
-                }
             }
             
-            columna++;
+            agregarToken(TokenType.ERROR, lexemaStr, fila, columna, offset);
+            contarLexema(lexemaStr, TokenType.ERROR);
         }
         
-        // Procesar último lexema si queda
-        if (enToken) {
-            procesarLexemaConLog(automata, lexemaActual, fila, columnaInicio);
-        }
-        
-        logAnalisis.add("=== ANÁLISIS COMPLETADO ===");
-        logAnalisis.add("Total tokens: " + tokens.size());
-        logAnalisis.add("Total errores: " + errores.size());
-        if (!sugerenciasAplicadas.isEmpty()) {
-            logAnalisis.add("Sugerencias aplicadas: " + sugerenciasAplicadas.size());
+        if (!transiciones.isEmpty()) {
+            logAnalisis.add("--- Fin de movimientos");
         }
     }
     
-    private void procesarLexemaConLog(Automata automata, StringBuilder lexema, int fila, int columna) {
-        if (lexema.length() > 0) {
-            String lexemaStr = lexema.toString();
-            if (!lexemaStr.trim().isEmpty()) {
-                // Mostrar movimientos del autómata
-                List<String> transiciones = automata.getTransitionLog();
-                if (!transiciones.isEmpty()) {
-                    logAnalisis.add("--- Movimientos del autómata para: '" + lexemaStr + "'");
-                    for (String transicion : transiciones) {
-                        logAnalisis.add("  " + transicion);
-                    }
-                }
-                
-                // Simular procesamiento final del autómata
-                automata.reset();
-                for (char c : lexemaStr.toCharArray()) {
-                    automata.transition(c);
-                }
-                
-                if (!automata.isErrorState() && automata.isFinalState()) {
-                    TokenType tipo = automata.getTokenType();
-                    
-                    // No procesar si ya es un comentario
-                    if (tipo != TokenType.COMENTARIO_LINEA && tipo != TokenType.COMENTARIO_BLOQUE) {
-                        Token token = new Token(tipo, lexemaStr, fila, columna);
-                        tokens.add(token);
-                        contarLexema(lexemaStr, tipo);
-                        
-                        // Registrar en log
-                        String mensajeLog = String.format("Token reconocido: %s '%s' en Fila %d, Columna %d", 
-                            tipo, lexemaStr, fila, columna);
-                        logAnalisis.add(mensajeLog);
-                    }
-                } else {
-                    // Error en el lexema - CON SUGERENCIAS
-                    String sugerencia = generarSugerencia(lexemaStr, lexemaStr.charAt(0), fila, columna);
-                    String sugerenciaContexto = obtenerSugerenciaContexto(lexemaStr, 0);
-                    
-                    String mensajeError = String.format("ERROR en Fila %d, Columna %d: '%s'\n   %s\n   %s", 
-                        fila, columna, lexemaStr, sugerencia, sugerenciaContexto);
-                    
-                    errores.add(mensajeError);
-                    logAnalisis.add(mensajeError);
-                    
-                    Token tokenError = new Token(TokenType.ERROR, lexemaStr, fila, columna);
-                    tokens.add(tokenError);
-                    contarLexema(lexemaStr, TokenType.ERROR);
-                }
-                
-                if (!transiciones.isEmpty()) {
-                    logAnalisis.add("--- Fin de movimientos");
-                }
-            }
+    private void agregarToken(TokenType tipo, String lexema, int fila, int columna, int offset) {
+        if (tokens.getSource() != null) {
+            // El lexema se recupera del texto fuente cuando se pida
+            tokens.add(tipo, offset, lexema.length(), fila, columna);
+        } else {
+            tokens.add(tipo, lexema, offset, fila, columna);
         }
     }
     
@@ -243,29 +426,24 @@ public class Lexer {
         return "Sugerencia: Revise la sintaxis del lexema";
     }
     
-    private String obtenerSugerenciaContexto(String textoEntrada, int posicionError) {
+    // anterior / siguiente: caracteres alrededor del error (TokenScanner.FIN si no hay)
+    private String obtenerSugerenciaContexto(char anteriorChar, char siguienteChar) {
         // Analizar el contexto alrededor del error
-        if (posicionError < textoEntrada.length() - 1) {
-            char siguienteChar = textoEntrada.charAt(posicionError + 1);
-            if (siguienteChar == '=') {
-                contarSugerencia("operador_comparacion");
-                return "Sugerencia Contexto: ¿Estaba intentando usar un operador de comparación? (==, !=, etc.)";
-            }
+        if (siguienteChar == '=') {
+            contarSugerencia("operador_comparacion");
+            return "Sugerencia Contexto: ¿Estaba intentando usar un operador de comparación? (==, !=, etc.)";
         }
         
         // Verificar si hay un comentario mal formado
-        if (posicionError > 0 && textoEntrada.charAt(posicionError - 1) == '/') {
+        if (anteriorChar == '/') {
             contarSugerencia("comentario_mal_formado");
             return "Sugerencia Contexto: ¿Estaba intentando hacer un comentario? Use // o /* */";
         }
         
         // Verificar si es un operador mal formado
-        if (posicionError > 0) {
-            char anteriorChar = textoEntrada.charAt(posicionError - 1);
-            if ("+-*/%=<>!&|".indexOf(anteriorChar) >= 0) {
-                contarSugerencia("operador_mal_formado");
-                return "Sugerencia Contexto: ¿Estaba intentando usar un operador compuesto? (&&, ||, ==, etc.)";
-            }
+        if ("+-*/%=<>!&|".indexOf(anteriorChar) >= 0) {
+            contarSugerencia("operador_mal_formado");
+            return "Sugerencia Contexto: ¿Estaba intentando usar un operador compuesto? (&&, ||, ==, etc.)";
         }
         
         contarSugerencia("contexto_general");
@@ -277,197 +455,108 @@ public class Lexer {
             sugerenciasAplicadas.getOrDefault(tipoSugerencia, 0) + 1);
     }
     
-    private String preprocesarComentarios(String textoEntrada) {
-        StringBuilder resultado = new StringBuilder();
-        StringBuilder salida = new StringBuilder();
-        boolean enComentarioLinea = false;
-        boolean enComentarioBloque = false;
-        int fila = 1;
-        int columna = 1;
-        
-        for (int i = 0; i < textoEntrada.length(); i++) {
-            char caracterActual = textoEntrada.charAt(i);
-            char siguienteCaracter = (i + 1 < textoEntrada.length()) ? textoEntrada.charAt(i + 1) : '\0';
-            
-            // Detectar inicio de comentario de línea
-            if (!enComentarioLinea && !enComentarioBloque && caracterActual == '/' && siguienteCaracter == '/') {
-                enComentarioLinea = true;
-                String comentario = "//";
-                Token tokenComentario = new Token(TokenType.COMENTARIO_LINEA, comentario, fila, columna);
-                tokens.add(tokenComentario);
-                contarLexema(comentario, TokenType.COMENTARIO_LINEA);
-                logAnalisis.add("Token reconocido: COMENTARIO_LINEA '//' en Fila " + fila + ", Columna " + columna);
-                i++; // Saltar el siguiente '/'
-                columna++;
-                continue;
-            }
-            
-            // Detectar inicio de comentario de bloque
-            if (!enComentarioLinea && !enComentarioBloque && caracterActual == '/' && siguienteCaracter == '*') {
-                enComentarioBloque = true;
-                String comentario = "/*";
-                Token tokenComentario = new Token(TokenType.COMENTARIO_BLOQUE, comentario, fila, columna);
-                tokens.add(tokenComentario);
-                contarLexema(comentario, TokenType.COMENTARIO_BLOQUE);
-                logAnalisis.add("Token reconocido: COMENTARIO_BLOQUE '/*' en Fila " + fila + ", Columna " + columna);
-                i++; // Saltar el siguiente '*'
-                columna++;
-                continue;
-            }
-            
-            // Detectar fin de comentario de bloque
-            if (enComentarioBloque && caracterActual == '*' && siguienteCaracter == '/') {
-                enComentarioBloque = false;
-                i++; // Saltar el siguiente '/'
-                columna++;
-                continue;
-            }
-            
-            // Manejar comentarios
-            if (enComentarioLinea) {
-                if (caracterActual == '\n') {
-                    enComentarioLinea = false;
-                    resultado.append(caracterActual);
-                    fila++;
-                    columna = 1;
-                } else {
-                    // Agregar al comentario actual
-                    String lexemaActual = tokens.get(tokens.size() - 1).getLexeme();
-                    tokens.remove(tokens.size() - 1);
-                    Token tokenActualizado = new Token(TokenType.COMENTARIO_LINEA, lexemaActual + caracterActual, fila, columna - lexemaActual.length() + 1);
-                    tokens.add(tokenActualizado);
-                }
-                columna++;
-                continue;
-            }
-            
-            if (enComentarioBloque) {
-                if (caracterActual == '\n') {
-                    fila++;
-                    columna = 1;
-                } else {
-                    // Agregar al comentario de bloque actual
-                    String lexemaActual = tokens.get(tokens.size() - 1).getLexeme();
-                    tokens.remove(tokens.size() - 1);
-                    Token tokenActualizado = new Token(TokenType.COMENTARIO_BLOQUE, lexemaActual + caracterActual, fila, columna - lexemaActual.length() + 1);
-                    tokens.add(tokenActualizado);
-                }
-                columna++;
-                continue;
-            }
-            
-            // Carácter normal (no comentario)
-            resultado.append(caracterActual);
-            salida.append(caracterActual);
-            
-            if (caracterActual == '\n') {
-                fila++;
-                columna = 1;
-            } else {
-                columna++;
-            }
-        }
-        
-        return salida.toString();
-    }
-    
-    private boolean esFinDeToken(int indiceActual, String entrada, Automata automata, char caracterActual) {
-        if (indiceActual + 1 >= entrada.length()) {
-            return true; // Fin del texto
-        }
-        
-        char siguienteCaracter = entrada.charAt(indiceActual + 1);
-        int estadoActual = automata.getCurrentState();
-        
-        // Si el siguiente carácter es espacio o separador, terminamos
-        if (siguienteCaracter == ' ' || siguienteCaracter == '\t' || siguienteCaracter == '\n' || siguienteCaracter == '\r') {
-            return true;
-        }
-        
-        // Si el siguiente carácter es un operador, terminamos
-        if ("()[]{};:,+-*/%=.<>".indexOf(siguienteCaracter) >= 0) {
-            return true;
-        }
-        
-        return false;
-    }
-    
     private void contarLexema(String lexema, TokenType tipo) {
-        String clave = lexema + "|" + tipo;
-        conteoLexemas.put(clave, conteoLexemas.getOrDefault(clave, 0) + 1);
+        conteoLexemas.merge(new AbstractMap.SimpleImmutableEntry<>(lexema, tipo), 1, Integer::sum);
     }
     
     // Métodos para obtener resultados
-    public List<Token> getTokens() { return new ArrayList<>(tokens); }
+    public List<Token> getTokens() { return tokens.toList(); }
+    
+    // Tokens del último análisis sin copiarlos; se pueden recorrer con for-each
+    // (vista reutilizable) o por índice
+    public TokenBuffer getTokenBuffer() { return tokens; }
+    
+    // Índice de líneas del texto analizado (se crea al pedirlo; null si se analizó
+    // un archivo sin guardar el texto, ver analyze(Path))
+    public LineIndex getLineIndex() {
+        if (indiceLineas == null && tokens.getSource() != null) {
+            indiceLineas = new LineIndex(tokens.getSource());
+        }
+        return indiceLineas;
+    }
     public List<String> getErrors() { return new ArrayList<>(errores); }
     public List<String> getAnalysisLog() { return new ArrayList<>(logAnalisis); }
     
+    // Nivel de traza del análisis; FULL_TRANSITIONS (por defecto) conserva el log completo
+    // del reporte, OFF evita construir mensajes por carácter y por token
+    public TraceLevel getTraceLevel() { return nivelTraza; }
+    public void setTraceLevel(TraceLevel nivelTraza) { this.nivelTraza = nivelTraza; }
+    
     public String getResults() {
         StringBuilder sb = new StringBuilder();
-        sb.append("=== REPORTE DE ANÁLISIS LÉXICO ===\n\n");
+        try {
+            writeResults(sb);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // Un StringBuilder no lanza IOException
+        }
+        return sb.toString();
+    }
+    
+    // Escribe el reporte de getResults() en "salida" a medida que lo genera, línea por
+    // línea desde los tokens, errores, recuentos y log, sin armarlo antes en memoria.
+    // Con un Writer con buffer la memoria usada no depende del tamaño del reporte.
+    public void writeResults(Appendable salida) throws IOException {
+        salida.append("=== REPORTE DE ANÁLISIS LÉXICO ===\n\n");
         
         // Tokens encontrados
-        sb.append("TOKENS RECONOCIDOS:\n");
-        sb.append("-------------------\n");
+        salida.append("TOKENS RECONOCIDOS:\n");
+        salida.append("-------------------\n");
         for (Token token : tokens) {
             if (token.getType() != TokenType.ERROR) {
-                sb.append(token.toReportString()).append("\n");
+                salida.append(token.toReportString()).append("\n");
             }
         }
         
         // Errores con sugerencias
         if (!errores.isEmpty()) {
-            sb.append("\n=== REPORTE DE ERRORES CON SUGERENCIAS ===\n");
-            sb.append("══════════════════════════════════════════════\n");
+            salida.append("\n=== REPORTE DE ERRORES CON SUGERENCIAS ===\n");
+            salida.append("══════════════════════════════════════════════\n");
             
             int contadorError = 1;
             for (String error : errores) {
-                sb.append("ERROR ").append(contadorError).append(":\n");
-                sb.append(error).append("\n");
-                sb.append("──────────────────────────────────────────\n");
+                salida.append("ERROR ").append(String.valueOf(contadorError)).append(":\n");
+                salida.append(error).append("\n");
+                salida.append("──────────────────────────────────────────\n");
                 contadorError++;
             }
             
-            sb.append("Total de errores: ").append(errores.size()).append("\n");
+            salida.append("Total de errores: ").append(String.valueOf(errores.size())).append("\n");
             
             // Estadísticas de sugerencias
             if (!sugerenciasAplicadas.isEmpty()) {
-                sb.append("\nESTADÍSTICAS DE SUGERENCIAS:\n");
-                sb.append("────────────────────────────\n");
+                salida.append("\nESTADÍSTICAS DE SUGERENCIAS:\n");
+                salida.append("────────────────────────────\n");
                 for (Map.Entry<String, Integer> entrada : sugerenciasAplicadas.entrySet()) {
                     String tipo = entrada.getKey();
                     int cantidad = entrada.getValue();
-                    sb.append(String.format("- %s: %d veces\n", tipo, cantidad));
+                    salida.append(String.format("- %s: %d veces\n", tipo, cantidad));
                 }
             }
         }
         
         // Conteo de lexemas
-        sb.append("\nRECUENTO DE LEXEMAS:\n");
-        sb.append("-------------------\n");
-        for (Map.Entry<String, Integer> entrada : conteoLexemas.entrySet()) {
-            String[] partes = entrada.getKey().split("\\|");
-            String lexema = partes[0];
-            TokenType tipo = TokenType.valueOf(partes[1]);
-            sb.append(String.format("%-20s %-15s Cantidad: %d\n", 
+        salida.append("\nRECUENTO DE LEXEMAS:\n");
+        salida.append("-------------------\n");
+        for (Map.Entry<Map.Entry<String, TokenType>, Integer> entrada : conteoLexemas.entrySet()) {
+            String lexema = entrada.getKey().getKey();
+            TokenType tipo = entrada.getKey().getValue();
+            salida.append(String.format("%-20s %-15s Cantidad: %d\n", 
                 "'" + lexema + "'", tipo, entrada.getValue()));
         }
         
         // Log del análisis
-        sb.append("\nLOG DEL ANÁLISIS:\n");
-        sb.append("----------------\n");
+        salida.append("\nLOG DEL ANÁLISIS:\n");
+        salida.append("----------------\n");
         for (String log : logAnalisis) {
-            sb.append(log).append("\n");
+            salida.append(log).append("\n");
         }
-        
-        return sb.toString();
     }
     
-    public Map<String, Integer> getLexemeCount() {
-        return new HashMap<>(conteoLexemas);
+    public Map<Map.Entry<String, TokenType>, Integer> getLexemeCount() {
+        return new LinkedHashMap<>(conteoLexemas);
     }
     
     public Map<String, Integer> getSugerenciasAplicadas() {
-        return new HashMap<>(sugerenciasAplicadas);
+        return new LinkedHashMap<>(sugerenciasAplicadas);
     }
 }
\ No newline at end of file
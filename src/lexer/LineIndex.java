@@ -0,0 +1,64 @@
+package lexer;
+
+import java.util.Arrays;
+
+// Índice de inicios de línea de un texto: inicios[f - 1] es el offset donde
+// empieza la fila f. Convierte fila/columna a offset en O(1) y offset a
+// fila/columna con búsqueda binaria, sin volver a recorrer el texto. Las filas y
+// columnas empiezan en 1 y cuentan caracteres igual que el Lexer.
+public class LineIndex {
+    private int[] inicios;
+    private int lineas;
+    private final int longitud;
+    
+    public LineIndex(CharSequence texto) {
+        longitud = texto.length();
+        inicios = new int[16];
+        inicios[0] = 0;
+        lineas = 1;
+        for (int i = 0; i < longitud; i++) {
+            if (texto.charAt(i) == '\n') {
+                if (lineas == inicios.length) {
+                    inicios = Arrays.copyOf(inicios, lineas * 2);
+                }
+                inicios[lineas++] = i + 1;
+            }
+        }
+    }
+    
+    public int getLineCount() { return lineas; }
+    public int getTextLength() { return longitud; }
+    
+    public int getLineStart(int fila) {
+        if (fila < 1 || fila > lineas) {
+            throw new IndexOutOfBoundsException("Fila " + fila + ", total " + lineas);
+        }
+        return inicios[fila - 1];
+    }
+    
+    public int getOffset(int fila, int columna) {
+        return getLineStart(fila) + columna - 1;
+    }
+    
+    // Fila del carácter en "offset" (un offset igual al largo del texto es válido: el final)
+    public int getRow(int offset) {
+        if (offset < 0 || offset > longitud) {
+            throw new IndexOutOfBoundsException("Offset " + offset + ", largo " + longitud);
+        }
+        int bajo = 0;
+        int alto = lineas - 1;
+        while (bajo < alto) {
+            int medio = (bajo + alto + 1) >>> 1;
+            if (inicios[medio] <= offset) {
+                bajo = medio;
+            } else {
+                alto = medio - 1;
+            }
+        }
+        return bajo + 1;
+    }
+    
+    public int getColumn(int offset) {
+        return offset - inicios[getRow(offset) - 1] + 1;
+    }
+}
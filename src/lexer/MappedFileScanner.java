@@ -0,0 +1,138 @@
+package lexer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Alimenta un TokenScanner directamente desde un archivo mapeado en memoria.
+// Los bytes ASCII pasan tal cual al autómata y las secuencias UTF-8 se
+// decodifican en el momento, sin crear un String con todo el archivo. Los
+// archivos mayores que una ventana se mapean por partes; una secuencia UTF-8
+// partida entre dos ventanas se vuelve a leer al inicio de la siguiente.
+//
+// Las secuencias inválidas se reemplazan por U+FFFD igual que en
+// StandardCharsets.UTF_8 (un reemplazo por cada subparte máxima), así que el
+// archivo da los mismos caracteres que si se leyera a un String.
+//
+// Los offsets del análisis son int, así que se rechazan los archivos de más de
+// TokenScanner.MAX_CARACTERES bytes. Cada carácter ocupa al menos un byte, de
+// modo que un archivo aceptado nunca pasa ese límite en caracteres.
+class MappedFileScanner {
+    // Tamaño máximo de cada ventana (un MappedByteBuffer no puede pasar de 2 GB)
+    static final long VENTANA_MAPEO = 1L << 30;
+    
+    private static final char REEMPLAZO = '\uFFFD';
+    
+    private final TokenScanner scanner;
+    
+    // Se vio algún carácter que no es blanco (como en Lexer.esTextoVacio)
+    private boolean hayContenido = false;
+    
+    private MappedFileScanner(TokenScanner scanner) {
+        this.scanner = scanner;
+    }
+    
+    // Devuelve false si el archivo está vacío o tiene solo blancos
+    static boolean escanear(Path archivo, TokenScanner scanner) throws IOException {
+        MappedFileScanner lector = new MappedFileScanner(scanner);
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long tamano = canal.size();
+            if (tamano > TokenScanner.MAX_CARACTERES) {
+                throw new IOException(String.format(
+                    "El archivo %s tiene %d bytes; el máximo que admite el analizador es %d",
+                    archivo, tamano, TokenScanner.MAX_CARACTERES));
+            }
+            long posicion = 0;
+            
+            while (posicion < tamano) {
+                long longitud = Math.min(VENTANA_MAPEO, tamano - posicion);
+                MappedByteBuffer ventana = canal.map(FileChannel.MapMode.READ_ONLY, posicion, longitud);
+                boolean ultimaVentana = posicion + longitud == tamano;
+                posicion += lector.decodificar(ventana, ultimaVentana);
+            }
+            
+            scanner.finalizar();
+            return lector.hayContenido;
+        }
+    }
+    
+    // Decodifica UTF-8 desde "bytes" hacia el scanner y devuelve los bytes consumidos.
+    // Si la ventana no es la última, una secuencia incompleta al final se deja sin consumir.
+    private int decodificar(ByteBuffer bytes, boolean ultimaVentana) {
+        int limite = bytes.limit();
+        int i = 0;
+        
+        while (i < limite) {
+            int b = bytes.get(i) & 0xFF;
+            
+            // Camino rápido: ASCII
+            if (b < 0x80) {
+                alimentar((char) b);
+                i++;
+                continue;
+            }
+            
+            // Largo de la secuencia y rango válido del segundo byte según el primero;
+            // los rangos excluyen las formas largas y lo mayor a U+10FFFF
+            int largo;
+            int minimo = 0x80;
+            int maximo = 0xBF;
+            if (b >= 0xC2 && b <= 0xDF) {
+                largo = 2;
+            } else if (b >= 0xE0 && b <= 0xEF) {
+                largo = 3;
+                if (b == 0xE0) minimo = 0xA0;
+            } else if (b >= 0xF0 && b <= 0xF4) {
+                largo = 4;
+                if (b == 0xF0) minimo = 0x90;
+                if (b == 0xF4) maximo = 0x8F;
+            } else {
+                // Byte de continuación suelto o byte que nunca es válido
+                alimentar(REEMPLAZO);
+                i++;
+                continue;
+            }
+            
+            // Cuántos bytes forman un prefijo válido de la secuencia
+            int punto = b & (0xFF >> (largo + 1));
+            int validos = 1;
+            while (validos < largo && i + validos < limite) {
+                int continuacion = bytes.get(i + validos) & 0xFF;
+                int desde = validos == 1 ? minimo : 0x80;
+                int hasta = validos == 1 ? maximo : 0xBF;
+                if (continuacion < desde || continuacion > hasta) break;
+                punto = (punto << 6) | (continuacion & 0x3F);
+                validos++;
+            }
+            
+            if (validos < largo) {
+                if (i + validos == limite && !ultimaVentana) {
+                    break; // Se completa en la siguiente ventana
+                }
+                // Un solo reemplazo para el prefijo válido (secuencia cortada o mal formada)
+                alimentar(REEMPLAZO);
+                i += validos;
+                continue;
+            }
+            
+            if (largo < 4) {
+                // Un sustituto codificado (ED A0..BF xx) es un solo reemplazo de 3 bytes
+                alimentar(Character.isSurrogate((char) punto) ? REEMPLAZO : (char) punto);
+            } else {
+                alimentar(Character.highSurrogate(punto));
+                alimentar(Character.lowSurrogate(punto));
+            }
+            i += largo;
+        }
+        
+        return i;
+    }
+    
+    private void alimentar(char c) {
+        if (c > ' ') hayContenido = true;
+        scanner.alimentar(c);
+    }
+}
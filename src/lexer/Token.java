@@ -7,14 +7,22 @@ public class Token {
     private String lexeme;
     private int row;
     private int column;
-    private int length;
+    private int offset;    // Posición absoluta del primer carácter en el texto (-1 si no se conoce)
     
     public Token(TokenType type, String lexeme, int row, int column) {
+        this(type, lexeme, row, column, -1);
+    }
+    
+    public Token(TokenType type, String lexeme, int row, int column, int offset) {
         this.type = type;
         this.lexeme = lexeme;
         this.row = row;
         this.column = column;
-        this.length = lexeme != null ? lexeme.length() : 0;
+        this.offset = offset;
+    }
+    
+    // Para vistas que leen sus datos de otra estructura (ver TokenBuffer)
+    Token() {
     }
     
     // Getters
@@ -22,12 +30,13 @@ public class Token {
     public String getLexeme() { return lexeme; }
     public int getRow() { return row; }
     public int getColumn() { return column; }
-    public int getLength() { return length; }
+    public int getOffset() { return offset; }
+    public int getLength() { return lexeme != null ? lexeme.length() : 0; }
     
     // Método para obtener color según tipo de token
   // Método para obtener color según tipo de token
 public Color getColor() {
-    switch (type) {
+    switch (getType()) {
         case PALABRA_RESERVADA:
             return new Color(0, 0, 255); // AZUL
         case IDENTIFICADOR:
@@ -54,14 +63,14 @@ public Color getColor() {
     @Override
     public String toString() {
         return String.format("Token[%s, '%s', Fila:%d, Col:%d]", 
-            type, lexeme, row, column);
+            getType(), getLexeme(), getRow(), getColumn());
     }
     
     // Método para formato de reporte
     public String toReportString() {
         return String.format("%-15s %-20s Fila:%-4d Col:%-4d", 
-            type.toString(), 
-            "'" + lexeme + "'", 
-            row, column);
+            getType().toString(), 
+            "'" + getLexeme() + "'", 
+            getRow(), getColumn());
     }
 }
\ No newline at end of file
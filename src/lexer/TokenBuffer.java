@@ -0,0 +1,261 @@
+package lexer;
+
+import java.util.*;
+
+// Almacenamiento columnar de tokens: en lugar de un objeto Token por token se
+// guardan arreglos paralelos de int (tipo, inicio, longitud, fila, columna) que
+// crecen por bloques, sin copiar lo ya almacenado. El lexema no se guarda: se
+// obtiene del texto fuente solo cuando se pide con getLexeme().
+//
+// Cuando no hay texto fuente (por ejemplo al analizar un archivo mapeado) los
+// lexemas se guardan aparte, en una columna que solo se crea en ese caso.
+public class TokenBuffer implements Iterable<Token> {
+    private static final int BITS_BLOQUE = 12;
+    private static final int TAMANO_BLOQUE = 1 << BITS_BLOQUE;
+    private static final int MASCARA_BLOQUE = TAMANO_BLOQUE - 1;
+    private static final TokenType[] TIPOS = TokenType.values();
+    
+    private int[][] tipos = new int[0][];
+    private int[][] inicios = new int[0][];
+    private int[][] longitudes = new int[0][];
+    private int[][] filas = new int[0][];
+    private int[][] columnas = new int[0][];
+    private String[][] lexemas;
+    private int cantidad;
+    
+    private CharSequence fuente;
+    
+    public TokenBuffer() {
+    }
+    
+    public TokenBuffer(CharSequence fuente) {
+        this.fuente = fuente;
+    }
+    
+    public CharSequence getSource() { return fuente; }
+    public void setSource(CharSequence fuente) { this.fuente = fuente; }
+    
+    public int size() { return cantidad; }
+    public boolean isEmpty() { return cantidad == 0; }
+    
+    // Vacía el buffer conservando los bloques ya reservados
+    public void clear() {
+        cantidad = 0;
+        if (lexemas != null) {
+            for (String[] bloque : lexemas) {
+                if (bloque != null) Arrays.fill(bloque, null);
+            }
+        }
+    }
+    
+    // Agrega un token cuyo lexema es fuente[inicio, inicio + longitud)
+    public void add(TokenType tipo, int inicio, int longitud, int fila, int columna) {
+        int i = reservar();
+        int bloque = i >>> BITS_BLOQUE;
+        int pos = i & MASCARA_BLOQUE;
+        tipos[bloque][pos] = tipo.ordinal();
+        inicios[bloque][pos] = inicio;
+        longitudes[bloque][pos] = longitud;
+        filas[bloque][pos] = fila;
+        columnas[bloque][pos] = columna;
+    }
+    
+    // Agrega un token con su lexema explícito (para entradas sin texto fuente)
+    public void add(TokenType tipo, String lexema, int inicio, int fila, int columna) {
+        add(tipo, inicio, lexema.length(), fila, columna);
+        int i = cantidad - 1;
+        int bloque = i >>> BITS_BLOQUE;
+        if (lexemas == null) {
+            lexemas = new String[tipos.length][];
+        } else if (lexemas.length < tipos.length) {
+            lexemas = Arrays.copyOf(lexemas, tipos.length);
+        }
+        if (lexemas[bloque] == null) {
+            lexemas[bloque] = new String[TAMANO_BLOQUE];
+        }
+        lexemas[bloque][i & MASCARA_BLOQUE] = lexema;
+    }
+    
+    // Copia al final todos los tokens de "otro" (que debe compartir el texto fuente)
+    public void addAll(TokenBuffer otro) {
+        for (int i = 0; i < otro.cantidad; i++) {
+            int bloque = i >>> BITS_BLOQUE;
+            int pos = i & MASCARA_BLOQUE;
+            String lexema = otro.lexemas != null && bloque < otro.lexemas.length && otro.lexemas[bloque] != null
+                ? otro.lexemas[bloque][pos]
+                : null;
+            TokenType tipo = TIPOS[otro.tipos[bloque][pos]];
+            if (lexema != null) {
+                add(tipo, lexema, otro.inicios[bloque][pos], otro.filas[bloque][pos], otro.columnas[bloque][pos]);
+            } else {
+                add(tipo, otro.inicios[bloque][pos], otro.longitudes[bloque][pos],
+                    otro.filas[bloque][pos], otro.columnas[bloque][pos]);
+            }
+        }
+    }
+    
+    // Reemplaza los tokens [desde, hasta) por los de "nuevos" y desplaza en
+    // "deltaOffset" y "deltaFila" a los tokens que estaban después de "hasta".
+    // Solo mueve enteros: el costo es proporcional a los tokens siguientes, sin
+    // volver a analizar ni crear objetos.
+    public void replace(int desde, int hasta, TokenBuffer nuevos, int deltaOffset, int deltaFila) {
+        if (desde < 0 || hasta > cantidad || desde > hasta) {
+            throw new IndexOutOfBoundsException("Rango " + desde + ".." + hasta + ", tamaño " + cantidad);
+        }
+        if (lexemas != null || nuevos.lexemas != null) {
+            throw new IllegalStateException("replace() solo admite tokens que leen su lexema del texto fuente");
+        }
+        
+        int cantidadAnterior = cantidad;
+        int diferencia = nuevos.cantidad - (hasta - desde);
+        if (diferencia > 0) {
+            for (int k = 0; k < diferencia; k++) {
+                reservar();
+            }
+            for (int i = cantidadAnterior - 1; i >= hasta; i--) {
+                mover(i, i + diferencia, deltaOffset, deltaFila);
+            }
+        } else {
+            for (int i = hasta; i < cantidadAnterior; i++) {
+                mover(i, i + diferencia, deltaOffset, deltaFila);
+            }
+            cantidad += diferencia;
+        }
+        
+        for (int k = 0; k < nuevos.cantidad; k++) {
+            int origen = k >>> BITS_BLOQUE;
+            int pos = k & MASCARA_BLOQUE;
+            int i = desde + k;
+            int bloque = i >>> BITS_BLOQUE;
+            int destino = i & MASCARA_BLOQUE;
+            tipos[bloque][destino] = nuevos.tipos[origen][pos];
+            inicios[bloque][destino] = nuevos.inicios[origen][pos];
+            longitudes[bloque][destino] = nuevos.longitudes[origen][pos];
+            filas[bloque][destino] = nuevos.filas[origen][pos];
+            columnas[bloque][destino] = nuevos.columnas[origen][pos];
+        }
+    }
+    
+    // Índice del primer token cuyo inicio es mayor o igual a "offset" (size() si no hay).
+    // Los tokens están ordenados por inicio, así que es una búsqueda binaria.
+    public int indexAtOrAfter(int offset) {
+        int bajo = 0;
+        int alto = cantidad;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (inicios[medio >>> BITS_BLOQUE][medio & MASCARA_BLOQUE] < offset) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+    
+    public TokenType getType(int i) { return TIPOS[tipos[verificar(i) >>> BITS_BLOQUE][i & MASCARA_BLOQUE]]; }
+    public int getOffset(int i) { return inicios[verificar(i) >>> BITS_BLOQUE][i & MASCARA_BLOQUE]; }
+    public int getLength(int i) { return longitudes[verificar(i) >>> BITS_BLOQUE][i & MASCARA_BLOQUE]; }
+    public int getRow(int i) { return filas[verificar(i) >>> BITS_BLOQUE][i & MASCARA_BLOQUE]; }
+    public int getColumn(int i) { return columnas[verificar(i) >>> BITS_BLOQUE][i & MASCARA_BLOQUE]; }
+    
+    public String getLexeme(int i) {
+        int bloque = verificar(i) >>> BITS_BLOQUE;
+        if (lexemas != null && bloque < lexemas.length && lexemas[bloque] != null) {
+            String lexema = lexemas[bloque][i & MASCARA_BLOQUE];
+            if (lexema != null) return lexema;
+        }
+        if (fuente == null) {
+            throw new IllegalStateException("El token " + i + " no tiene lexema ni texto fuente");
+        }
+        int inicio = getOffset(i);
+        return fuente.subSequence(inicio, inicio + getLength(i)).toString();
+    }
+    
+    // Crea un Token independiente (con su propio lexema) para el índice dado
+    public Token get(int i) {
+        return new Token(getType(i), getLexeme(i), getRow(i), getColumn(i), getOffset(i));
+    }
+    
+    public List<Token> toList() {
+        List<Token> lista = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            lista.add(get(i));
+        }
+        return lista;
+    }
+    
+    // Recorre los tokens con una única vista reutilizable (flyweight): el Token
+    // devuelto por next() cambia en cada llamada, así que no debe guardarse.
+    // Use get(i) o toList() si se necesitan tokens independientes.
+    @Override
+    public Iterator<Token> iterator() {
+        return new Iterator<Token>() {
+            private final Vista vista = new Vista();
+            private int siguiente = 0;
+            
+            public boolean hasNext() {
+                return siguiente < cantidad;
+            }
+            
+            public Token next() {
+                if (siguiente >= cantidad) {
+                    throw new NoSuchElementException();
+                }
+                vista.indice = siguiente++;
+                return vista;
+            }
+        };
+    }
+    
+    // Token que lee sus datos de las columnas del buffer
+    private class Vista extends Token {
+        private int indice;
+        
+        @Override public TokenType getType() { return TokenBuffer.this.getType(indice); }
+        @Override public String getLexeme() { return TokenBuffer.this.getLexeme(indice); }
+        @Override public int getRow() { return TokenBuffer.this.getRow(indice); }
+        @Override public int getColumn() { return TokenBuffer.this.getColumn(indice); }
+        @Override public int getOffset() { return TokenBuffer.this.getOffset(indice); }
+        @Override public int getLength() { return TokenBuffer.this.getLength(indice); }
+    }
+    
+    private int verificar(int i) {
+        if (i < 0 || i >= cantidad) {
+            throw new IndexOutOfBoundsException("Índice " + i + ", tamaño " + cantidad);
+        }
+        return i;
+    }
+    
+    private void mover(int origen, int destino, int deltaOffset, int deltaFila) {
+        int bo = origen >>> BITS_BLOQUE;
+        int po = origen & MASCARA_BLOQUE;
+        int bd = destino >>> BITS_BLOQUE;
+        int pd = destino & MASCARA_BLOQUE;
+        tipos[bd][pd] = tipos[bo][po];
+        inicios[bd][pd] = inicios[bo][po] + deltaOffset;
+        longitudes[bd][pd] = longitudes[bo][po];
+        filas[bd][pd] = filas[bo][po] + deltaFila;
+        columnas[bd][pd] = columnas[bo][po];
+    }
+    
+    // Devuelve el índice del nuevo token, agregando un bloque si hace falta
+    private int reservar() {
+        int bloque = cantidad >>> BITS_BLOQUE;
+        if (bloque == tipos.length) {
+            int nuevos = Math.max(4, tipos.length * 2);
+            tipos = Arrays.copyOf(tipos, nuevos);
+            inicios = Arrays.copyOf(inicios, nuevos);
+            longitudes = Arrays.copyOf(longitudes, nuevos);
+            filas = Arrays.copyOf(filas, nuevos);
+            columnas = Arrays.copyOf(columnas, nuevos);
+        }
+        if (tipos[bloque] == null) {
+            tipos[bloque] = new int[TAMANO_BLOQUE];
+            inicios[bloque] = new int[TAMANO_BLOQUE];
+            longitudes[bloque] = new int[TAMANO_BLOQUE];
+            filas[bloque] = new int[TAMANO_BLOQUE];
+            columnas[bloque] = new int[TAMANO_BLOQUE];
+        }
+        return cantidad++;
+    }
+}
@@ -0,0 +1,211 @@
+package lexer;
+
+// Núcleo del análisis léxico: recibe caracteres uno a uno (o por bloques) y
+// avisa a un Listener cada vez que termina un lexema. No necesita el texto
+// completo en memoria: guarda solo el carácter anterior y uno pendiente, que
+// sirve de lookahead para decidir si el token termina.
+class TokenScanner {
+    
+    interface Listener {
+        // Lexema válido (o comentario) terminado; el autómata aún contiene el lexema
+        void tokenReconocido(Automata automata, TokenType tipo, int fila, int columna, int offset);
+        
+        // Lexema terminado en un estado que no es final (por ejemplo "3.")
+        void lexemaInvalido(Automata automata, int fila, int columna, int offset);
+        
+        // El autómata no tiene transición para "caracter"
+        void errorDeTransicion(Automata automata, char caracter, char anterior, char siguiente,
+                               int fila, int columna, int offset);
+    }
+    
+    // Lookahead usado al final de la entrada
+    static final char FIN = '\0';
+    
+    // Los offsets, filas y columnas son int (igual que en TokenBuffer y Token), así
+    // que una entrada puede tener a lo sumo Integer.MAX_VALUE caracteres
+    static final int MAX_CARACTERES = Integer.MAX_VALUE;
+    
+    private final Automata automata;
+    private final Listener listener;
+    
+    private int fila = 1;
+    private int columna = 1;
+    private int offset = 0;
+    private int filaInicio = 1;
+    private int columnaInicio = 1;
+    private int offsetInicio = 0;
+    private boolean enToken = false;
+    
+    private char anterior = FIN;
+    private char pendiente;
+    private boolean hayPendiente = false;
+    
+    TokenScanner(Automata automata, Listener listener) {
+        this.automata = automata;
+        this.listener = listener;
+        automata.reset();
+    }
+    
+    // Procesa un texto completo de una vez (sin el retraso de un carácter de alimentar)
+    void escanear(CharSequence texto) {
+        escanear(texto, 0, texto.length());
+        finalizar();
+    }
+    
+    // Procesa texto[desde, hasta) sin cerrar el último lexema. El lookahead del
+    // último carácter se toma del texto aunque quede fuera del rango.
+    void escanear(CharSequence texto, int desde, int hasta) {
+        int longitud = texto.length();
+        for (int i = desde; i < hasta; i++) {
+            char siguiente = i + 1 < longitud ? texto.charAt(i + 1) : FIN;
+            procesar(texto.charAt(i), siguiente);
+        }
+    }
+    
+    // Empieza a escanear en una posición intermedia del texto, en estado inicial.
+    // Solo es válido en un límite donde el análisis secuencial también estaría en
+    // estado inicial (por ejemplo, justo después de un salto de línea fuera de un
+    // comentario de bloque).
+    void posicionar(int offset, int fila, int columna, char anterior) {
+        this.offset = offset;
+        this.fila = fila;
+        this.columna = columna;
+        this.anterior = anterior;
+    }
+    
+    void alimentar(char c) {
+        if (hayPendiente) {
+            procesar(pendiente, c);
+        }
+        pendiente = c;
+        hayPendiente = true;
+    }
+    
+    void alimentar(char[] bloque, int desde, int cantidad) {
+        for (int i = desde; i < desde + cantidad; i++) {
+            alimentar(bloque[i]);
+        }
+    }
+    
+    // Procesa el carácter pendiente y cierra el último lexema
+    void finalizar() {
+        if (hayPendiente) {
+            procesar(pendiente, FIN);
+            hayPendiente = false;
+        }
+        if (enToken) {
+            terminarLexema(null);
+        }
+    }
+    
+    // Indica si el lexema en curso es un comentario de bloque todavía sin cerrar
+    boolean enComentarioDeBloque() {
+        int estado = automata.getCurrentState();
+        return enToken && (estado == Automata.STATE_BLOCK_COMMENT || estado == Automata.STATE_BLOCK_COMMENT_END);
+    }
+    
+    int getFila() { return fila; }
+    int getColumna() { return columna; }
+    int getOffset() { return offset; }
+    
+    private void procesar(char c, char siguiente) {
+        int estado = automata.getCurrentState();
+        
+        // Comentario de línea: consume todo hasta el salto de línea
+        if (enToken && estado == Automata.STATE_LINE_COMMENT) {
+            if (c != '\n') {
+                automata.transition(c);
+                avanzar(c);
+                return;
+            }
+            // El salto de línea cierra el comentario y se procesa abajo
+            terminarLexema(null);
+        }
+        
+        // Comentario de bloque: consume todo, incluidos espacios y saltos, hasta */
+        if (enToken && (estado == Automata.STATE_BLOCK_COMMENT || estado == Automata.STATE_BLOCK_COMMENT_END)) {
+            automata.transition(c);
+            avanzar(c);
+            if (estado == Automata.STATE_BLOCK_COMMENT_END && c == '/') {
+                terminarLexema(TokenType.COMENTARIO_BLOQUE);
+            }
+            return;
+        }
+        
+        // Saltos de línea, espacios y tabs separan tokens
+        if (c == '\n' || c == ' ' || c == '\t' || c == '\r') {
+            if (enToken) {
+                terminarLexema(null);
+            }
+            avanzar(c);
+            return;
+        }
+        
+        // Procesar carácter con el autómata
+        if (!enToken) {
+            filaInicio = fila;
+            columnaInicio = columna;
+            offsetInicio = offset;
+            enToken = true;
+        }
+        
+        automata.transition(c);
+        
+        if (automata.isErrorState()) {
+            listener.errorDeTransicion(automata, c, anterior, siguiente, fila, columnaInicio, offsetInicio);
+            automata.reset();
+            enToken = false;
+        } else if (automata.isFinalState() && !esEstadoComentario(automata.getCurrentState())
+                && esFinDeToken(siguiente)) {
+            terminarLexema(null);
+        }
+        
+        avanzar(c);
+    }
+    
+    private void avanzar(char c) {
+        if (offset == MAX_CARACTERES) {
+            // Sin este corte el offset daría la vuelta a negativo sin aviso
+            throw new IllegalStateException(
+                "La entrada supera el máximo de " + MAX_CARACTERES + " caracteres");
+        }
+        if (c == '\n') {
+            fila++;
+            columna = 1;
+        } else {
+            columna++;
+        }
+        offset++;
+        anterior = c;
+    }
+    
+    // tipoForzado: tipo a asignar sin consultar el estado del autómata. Se usa para el
+    // comentario de bloque cerrado, cuyo cierre deja al autómata en un estado que no
+    // describe el token.
+    private void terminarLexema(TokenType tipoForzado) {
+        if (tipoForzado != null || (!automata.isErrorState() && automata.isFinalState())) {
+            TokenType tipo = tipoForzado != null ? tipoForzado : automata.getTokenType();
+            listener.tokenReconocido(automata, tipo, filaInicio, columnaInicio, offsetInicio);
+        } else {
+            listener.lexemaInvalido(automata, filaInicio, columnaInicio, offsetInicio);
+        }
+        automata.reset();
+        enToken = false;
+    }
+    
+    private static boolean esFinDeToken(char siguienteCaracter) {
+        // Si el siguiente carácter es espacio o separador, terminamos
+        if (siguienteCaracter == ' ' || siguienteCaracter == '\t' || siguienteCaracter == '\n' || siguienteCaracter == '\r') {
+            return true;
+        }
+        
+        // Si el siguiente carácter es un operador, terminamos
+        return "()[]{};:,+-*/%=.<>".indexOf(siguienteCaracter) >= 0;
+    }
+    
+    private static boolean esEstadoComentario(int estado) {
+        return estado == Automata.STATE_LINE_COMMENT
+            || estado == Automata.STATE_BLOCK_COMMENT
+            || estado == Automata.STATE_BLOCK_COMMENT_END;
+    }
+}
@@ -0,0 +1,82 @@
+package lexer;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.util.*;
+
+// Análisis léxico bajo demanda: lee la entrada por bloques y entrega los tokens
+// a medida que se reconocen, sin cargar el archivo completo ni guardar la lista
+// de tokens. La memoria usada no depende del tamaño de la entrada (solo del
+// lexema más largo). Fila y columna se calculan igual que en Lexer.analyze,
+// también cuando un token queda partido entre dos bloques.
+public class TokenStream implements Iterator<Token>, Closeable {
+    private static final int TAMANO_BLOQUE = 8192;
+    
+    private final Reader entrada;
+    private final char[] bloque = new char[TAMANO_BLOQUE];
+    private final Deque<Token> listos = new ArrayDeque<>();
+    private final TokenScanner scanner;
+    private boolean finEntrada = false;
+    
+    public TokenStream(Reader entrada) {
+        this.entrada = entrada;
+        
+        Automata automata = new Automata();
+        automata.setTraceLevel(TraceLevel.OFF);
+        this.scanner = new TokenScanner(automata, new TokenScanner.Listener() {
+            public void tokenReconocido(Automata automata, TokenType tipo, int fila, int columna, int offset) {
+                listos.add(new Token(tipo, automata.getCurrentLexeme(), fila, columna, offset));
+            }
+            
+            public void lexemaInvalido(Automata automata, int fila, int columna, int offset) {
+                listos.add(new Token(TokenType.ERROR, automata.getCurrentLexeme(), fila, columna, offset));
+            }
+            
+            public void errorDeTransicion(Automata automata, char caracter, char anterior, char siguiente,
+                                          int fila, int columna, int offset) {
+                listos.add(new Token(TokenType.ERROR, automata.getCurrentLexeme(), fila, columna, offset));
+            }
+        });
+    }
+    
+    public TokenStream(ReadableByteChannel canal, Charset charset) {
+        this(Channels.newReader(canal, charset.newDecoder(), TAMANO_BLOQUE));
+    }
+    
+    @Override
+    public boolean hasNext() {
+        while (listos.isEmpty() && !finEntrada) {
+            leerBloque();
+        }
+        return !listos.isEmpty();
+    }
+    
+    @Override
+    public Token next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No hay más tokens");
+        }
+        return listos.poll();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        entrada.close();
+    }
+    
+    private void leerBloque() {
+        try {
+            int leidos = entrada.read(bloque, 0, bloque.length);
+            if (leidos < 0) {
+                scanner.finalizar();
+                finEntrada = true;
+            } else {
+                scanner.alimentar(bloque, 0, leidos);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error leyendo la entrada del analizador", e);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package lexer;
+
+// Nivel de detalle del registro que generan Lexer y Automata.
+// Cada nivel incluye lo de los niveles anteriores.
+public enum TraceLevel {
+    OFF,              // Sin registro: el ciclo principal no construye mensajes
+    ERRORS_ONLY,      // Errores léxicos y la transición fallida que los produjo
+    TOKENS,           // Además, cada token reconocido
+    FULL_TRANSITIONS  // Además, cada movimiento del autómata (modo depuración / reporte)
+}
@@ -0,0 +1,491 @@
+package main;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import lexer.Lexer;
+import lexer.Token;
+import lexer.TokenBuffer;
+import lexer.TokenStream;
+import lexer.TokenType;
+import lexer.TraceLevel;
+
+// Modo de línea de comandos, sin interfaz gráfica (para CI y scripts). Analiza
+// archivos, árboles de directorios o la entrada estándar y escribe el resultado
+// en JSON Lines: una línea por token, por error y por archivo, y una línea final
+// con los totales. Los archivos se analizan en paralelo en un pool de tamaño fijo
+// y con una cantidad acotada de archivos en curso; cada archivo se lee mapeado en
+// memoria con la traza apagada.
+//
+// Los directorios se recorren a medida que se analizan, sin listarlos antes, así
+// que los archivos salen en el orden del recorrido y no ordenados. Las líneas de
+// archivos distintos pueden intercalarse (por bloques de líneas completas); cada
+// línea indica a qué archivo pertenece. La entrada estándar se analiza como flujo
+// (TokenStream), sin leerla entera; sus errores no traen sugerencias.
+//
+// Código de salida: 0 sin errores, 1 si hubo errores léxicos, 2 si hubo errores
+// de uso o de lectura.
+public class LexerCLI {
+    private static final String USO =
+        "Uso: java -jar Proyecto1.jar [opciones] <archivo | directorio | ->...\n"
+        + "  -                 lee el texto de la entrada estándar\n"
+        + "  -j, --jobs N      archivos analizados en paralelo (por defecto, los núcleos)\n"
+        + "  -o, --output F    escribe el resultado en F en vez de la salida estándar\n"
+        + "  --ext .a,.b       al recorrer directorios, solo archivos con esas extensiones\n"
+        + "  --errors-only     no escribe los tokens, solo errores y resúmenes\n"
+        + "  -q, --quiet       sin resumen de rendimiento en la salida de errores\n"
+        + "  -h, --help        muestra esta ayuda";
+    
+    // Tamaño de los bloques de salida de cada archivo antes de pasarlos a la salida común
+    private static final int BLOQUE_SALIDA = 64 * 1024;
+    
+    private static final String ENTRADA_ESTANDAR = "-";
+    
+    private int hilos = Runtime.getRuntime().availableProcessors();
+    private Path archivoSalida;
+    private Set<String> extensiones;
+    private boolean soloErrores = false;
+    private boolean silencioso = false;
+    private final List<String> entradas = new ArrayList<>();
+    
+    private Writer salida;
+    private final PrintStream errores;
+    
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final AtomicLong totalTokens = new AtomicLong();
+    private final AtomicLong totalErrores = new AtomicLong();
+    private final AtomicLong archivosConError = new AtomicLong();
+    private final AtomicLong archivosFallidos = new AtomicLong();
+    
+    private LexerCLI(PrintStream errores) {
+        this.errores = errores;
+    }
+    
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+    
+    // Ejecuta el modo de línea de comandos y devuelve el código de salida
+    public static int run(String[] args) {
+        LexerCLI cli = new LexerCLI(System.err);
+        try {
+            if (!cli.leerArgumentos(args)) {
+                System.out.println(USO);
+                return 0;
+            }
+        } catch (IllegalArgumentException ex) {
+            System.err.println("Error: " + ex.getMessage());
+            System.err.println(USO);
+            return 2;
+        }
+        
+        try {
+            return cli.ejecutar();
+        } catch (IOException ex) {
+            System.err.println("Error: " + ex.getMessage());
+            return 2;
+        } catch (UncheckedIOException ex) {
+            System.err.println("Error: " + ex.getCause().getMessage());
+            return 2;
+        }
+    }
+    
+    // Devuelve false si solo se pidió la ayuda
+    private boolean leerArgumentos(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "-h":
+                case "--help":
+                    return false;
+                case "-j":
+                case "--jobs":
+                    try {
+                        hilos = Integer.parseInt(valor(args, ++i, arg));
+                    } catch (NumberFormatException ex) {
+                        throw new IllegalArgumentException("Cantidad de hilos inválida: " + args[i]);
+                    }
+                    if (hilos < 1) {
+                        throw new IllegalArgumentException("La cantidad de hilos debe ser al menos 1");
+                    }
+                    break;
+                case "-o":
+                case "--output":
+                    archivoSalida = ruta(valor(args, ++i, arg));
+                    break;
+                case "--ext":
+                    extensiones = new HashSet<>();
+                    for (String extension : valor(args, ++i, arg).split(",")) {
+                        String limpia = extension.trim().toLowerCase(Locale.ROOT);
+                        if (!limpia.isEmpty()) {
+                            extensiones.add(limpia.startsWith(".") ? limpia : "." + limpia);
+                        }
+                    }
+                    break;
+                case "--errors-only":
+                    soloErrores = true;
+                    break;
+                case "-q":
+                case "--quiet":
+                    silencioso = true;
+                    break;
+                default:
+                    if (arg.startsWith("-") && !arg.equals(ENTRADA_ESTANDAR)) {
+                        throw new IllegalArgumentException("Opción desconocida: " + arg);
+                    }
+                    if (!arg.equals(ENTRADA_ESTANDAR)) {
+                        ruta(arg); // Una ruta mal formada es un error de uso
+                    }
+                    entradas.add(arg);
+            }
+        }
+        if (entradas.isEmpty()) {
+            throw new IllegalArgumentException("Indique al menos un archivo, directorio o '-'");
+        }
+        return true;
+    }
+    
+    private static String valor(String[] args, int i, String opcion) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("Falta el valor de " + opcion);
+        }
+        return args[i];
+    }
+    
+    private static Path ruta(String texto) {
+        try {
+            return Paths.get(texto);
+        } catch (InvalidPathException ex) {
+            throw new IllegalArgumentException("Ruta inválida: " + ex.getMessage());
+        }
+    }
+    
+    private int ejecutar() throws IOException {
+        OutputStream destino = archivoSalida != null
+            ? Files.newOutputStream(archivoSalida)
+            : new FileOutputStream(FileDescriptor.out);
+        salida = new BufferedWriter(new OutputStreamWriter(destino, StandardCharsets.UTF_8), BLOQUE_SALIDA);
+        
+        long inicio = System.nanoTime();
+        long archivos;
+        try {
+            archivos = analizarEntradas();
+            
+            long nanos = System.nanoTime() - inicio;
+            StringBuilder total = new StringBuilder();
+            total.append("{\"type\":\"total\",\"files\":").append(archivos)
+                .append(",\"failed\":").append(archivosFallidos.get())
+                .append(",\"bytes\":").append(totalBytes.get())
+                .append(",\"tokens\":").append(totalTokens.get())
+                .append(",\"errors\":").append(totalErrores.get());
+            agregarRendimiento(total, totalBytes.get(), nanos).append("}\n");
+            escribir(total);
+            salida.flush();
+            
+            if (!silencioso) {
+                errores.printf(Locale.ROOT, "%d archivos, %d bytes, %d tokens, %d errores en %.1f ms (%.1f MB/s)%n",
+                    archivos, totalBytes.get(), totalTokens.get(), totalErrores.get(),
+                    nanos / 1e6, megabytesPorSegundo(totalBytes.get(), nanos));
+            }
+        } finally {
+            salida.close();
+        }
+        
+        if (archivosFallidos.get() > 0) return 2;
+        return archivosConError.get() > 0 ? 1 : 0;
+    }
+    
+    // Recorre las entradas y analiza cada archivo en el pool; devuelve cuántos hubo
+    private long analizarEntradas() throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(hilos, tarea -> {
+            Thread hilo = new Thread(tarea, "lexer-cli");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        // Limita los archivos en curso: recorrer un árbol enorme no encola todo de una vez
+        Semaphore enCurso = new Semaphore(hilos * 2);
+        List<Future<?>> pendientes = new ArrayList<>();
+        long archivos = 0;
+        
+        try {
+            for (String entrada : entradas) {
+                if (entrada.equals(ENTRADA_ESTANDAR)) {
+                    analizarEntradaEstandar();
+                    archivos++;
+                    continue;
+                }
+                
+                Path ruta = Paths.get(entrada);
+                if (!Files.exists(ruta)) {
+                    reportarFallo(entrada, "No existe el archivo o directorio");
+                    archivos++;
+                    continue;
+                }
+                if (!Files.isDirectory(ruta)) {
+                    enviar(pool, enCurso, pendientes, ruta);
+                    archivos++;
+                    continue;
+                }
+                
+                // El recorrido es perezoso: cada archivo se envía al encontrarlo
+                try (Stream<Path> recorrido = Files.walk(ruta)) {
+                    Iterator<Path> archivosDirectorio = recorrido
+                        .filter(Files::isRegularFile)
+                        .filter(this::extensionIncluida)
+                        .iterator();
+                    while (archivosDirectorio.hasNext()) {
+                        enviar(pool, enCurso, pendientes, archivosDirectorio.next());
+                        archivos++;
+                    }
+                } catch (UncheckedIOException ex) {
+                    // Un directorio ilegible corta el recorrido de esa entrada
+                    reportarFallo(entrada, ex.getCause().getMessage());
+                }
+            }
+            
+            for (Future<?> pendiente : pendientes) {
+                esperar(pendiente);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return archivos;
+    }
+    
+    // Envía un archivo al pool, esperando si ya hay demasiados en curso. Las tareas
+    // terminadas se revisan con get() antes de soltarlas, para que una falla (por
+    // ejemplo, al escribir la salida) corte la ejecución en vez de perderse.
+    private void enviar(ExecutorService pool, Semaphore enCurso, List<Future<?>> pendientes, Path archivo)
+            throws IOException {
+        enCurso.acquireUninterruptibly();
+        pendientes.add(pool.submit(() -> {
+            try {
+                analizarArchivo(archivo);
+            } finally {
+                enCurso.release();
+            }
+        }));
+        
+        Iterator<Future<?>> iterador = pendientes.iterator();
+        while (iterador.hasNext()) {
+            Future<?> pendiente = iterador.next();
+            if (pendiente.isDone()) {
+                esperar(pendiente);
+                iterador.remove();
+            }
+        }
+    }
+    
+    private boolean extensionIncluida(Path archivo) {
+        if (extensiones == null) return true;
+        String nombre = archivo.getFileName().toString().toLowerCase(Locale.ROOT);
+        int punto = nombre.lastIndexOf('.');
+        return punto >= 0 && extensiones.contains(nombre.substring(punto));
+    }
+    
+    private static void esperar(Future<?> pendiente) throws IOException {
+        try {
+            pendiente.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Análisis interrumpido");
+        } catch (ExecutionException ex) {
+            Throwable causa = ex.getCause();
+            if (causa instanceof IOException) throw (IOException) causa;
+            if (causa instanceof UncheckedIOException) throw ((UncheckedIOException) causa).getCause();
+            throw new IOException(causa);
+        }
+    }
+    
+    // === ANÁLISIS DE CADA ARCHIVO (hilos del pool) ===
+    
+    private void analizarArchivo(Path archivo) {
+        String nombre = archivo.toString();
+        Lexer lexer = crearLexer();
+        long inicio = System.nanoTime();
+        long bytes;
+        try {
+            bytes = Files.size(archivo);
+            lexer.analyze(archivo);
+        } catch (IOException | RuntimeException ex) {
+            reportarFallo(nombre, ex.getMessage() != null ? ex.getMessage() : ex.toString());
+            return;
+        }
+        reportar(nombre, lexer, bytes, System.nanoTime() - inicio);
+    }
+    
+    // La entrada estándar se analiza a medida que llega y cada token se escribe al
+    // reconocerlo, así que una entrada enorme por tubería no se guarda en memoria
+    private void analizarEntradaEstandar() throws IOException {
+        long inicio = System.nanoTime();
+        long[] bytes = new long[1];
+        InputStream contador = new FilterInputStream(new FileInputStream(FileDescriptor.in)) {
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) bytes[0]++;
+                return b;
+            }
+            
+            @Override
+            public int read(byte[] destino, int desde, int cantidad) throws IOException {
+                int leidos = super.read(destino, desde, cantidad);
+                if (leidos > 0) bytes[0] += leidos;
+                return leidos;
+            }
+        };
+        
+        String archivoJson = json("<stdin>");
+        StringBuilder bloque = new StringBuilder();
+        long cantidadTokens = 0;
+        long cantidadErrores = 0;
+        TokenStream flujo = new TokenStream(new InputStreamReader(contador, StandardCharsets.UTF_8));
+        try {
+            while (flujo.hasNext()) {
+                Token token = flujo.next();
+                cantidadTokens++;
+                boolean esError = token.getType() == TokenType.ERROR;
+                if (esError) cantidadErrores++;
+                if (!esError && soloErrores) continue;
+                
+                String mensaje = esError
+                    ? String.format("ERROR en Fila %d, Columna %d: '%s'", token.getRow(), token.getColumn(), token.getLexeme())
+                    : null;
+                agregarToken(bloque, archivoJson, token.getType(), token.getLexeme(),
+                    token.getRow(), token.getColumn(), token.getOffset(), mensaje);
+                if (bloque.length() >= BLOQUE_SALIDA) {
+                    escribir(bloque);
+                    bloque.setLength(0);
+                }
+            }
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        } catch (IllegalStateException ex) {
+            // Entrada de más de TokenScanner.MAX_CARACTERES caracteres
+            throw new IOException("<stdin>: " + ex.getMessage(), ex);
+        }
+        
+        agregarResumen(bloque, archivoJson, bytes[0], cantidadTokens, cantidadErrores, System.nanoTime() - inicio);
+        escribir(bloque);
+    }
+    
+    private static Lexer crearLexer() {
+        Lexer lexer = new Lexer();
+        lexer.setTraceLevel(TraceLevel.OFF); // Solo tokens y errores; sin log del análisis
+        return lexer;
+    }
+    
+    // Escribe los tokens, errores y el resumen del archivo, por bloques de líneas completas
+    private void reportar(String archivo, Lexer lexer, long bytes, long nanos) {
+        TokenBuffer tokens = lexer.getTokenBuffer();
+        List<String> mensajesError = lexer.getErrors();
+        String archivoJson = json(archivo);
+        StringBuilder bloque = new StringBuilder();
+        
+        // Cada token ERROR tiene su mensaje en getErrors(), en el mismo orden
+        int error = 0;
+        for (int i = 0; i < tokens.size(); i++) {
+            TokenType tipo = tokens.getType(i);
+            boolean esError = tipo == TokenType.ERROR;
+            if (!esError && soloErrores) continue;
+            
+            String mensaje = esError && error < mensajesError.size() ? mensajesError.get(error++) : null;
+            agregarToken(bloque, archivoJson, tipo, tokens.getLexeme(i),
+                tokens.getRow(i), tokens.getColumn(i), tokens.getOffset(i), mensaje);
+            if (bloque.length() >= BLOQUE_SALIDA) {
+                escribir(bloque);
+                bloque.setLength(0);
+            }
+        }
+        
+        agregarResumen(bloque, archivoJson, bytes, tokens.size(), mensajesError.size(), nanos);
+        escribir(bloque);
+    }
+    
+    // Línea de un token o de un error ("mensaje" solo en los errores que lo tienen)
+    private static void agregarToken(StringBuilder bloque, String archivoJson, TokenType tipo, String lexema,
+                                     int fila, int columna, int offset, String mensaje) {
+        bloque.append("{\"file\":").append(archivoJson)
+            .append(tipo == TokenType.ERROR ? ",\"type\":\"error\"" : ",\"type\":\"token\"")
+            .append(",\"kind\":\"").append(tipo.name()).append('"')
+            .append(",\"lexeme\":").append(json(lexema))
+            .append(",\"row\":").append(fila)
+            .append(",\"column\":").append(columna)
+            .append(",\"offset\":").append(offset);
+        if (mensaje != null) {
+            bloque.append(",\"message\":").append(json(mensaje));
+        }
+        bloque.append("}\n");
+    }
+    
+    // Línea de resumen de un archivo; también suma sus números a los totales
+    private void agregarResumen(StringBuilder bloque, String archivoJson, long bytes, long cantidadTokens,
+                                long cantidadErrores, long nanos) {
+        bloque.append("{\"file\":").append(archivoJson)
+            .append(",\"type\":\"summary\"")
+            .append(",\"bytes\":").append(bytes)
+            .append(",\"tokens\":").append(cantidadTokens)
+            .append(",\"errors\":").append(cantidadErrores);
+        agregarRendimiento(bloque, bytes, nanos).append("}\n");
+        
+        totalBytes.addAndGet(bytes);
+        totalTokens.addAndGet(cantidadTokens);
+        totalErrores.addAndGet(cantidadErrores);
+        if (cantidadErrores > 0) {
+            archivosConError.incrementAndGet();
+        }
+    }
+    
+    private void reportarFallo(String archivo, String mensaje) {
+        archivosFallidos.incrementAndGet();
+        escribir(new StringBuilder()
+            .append("{\"file\":").append(json(archivo))
+            .append(",\"type\":\"failure\",\"message\":").append(json(mensaje)).append("}\n"));
+    }
+    
+    private static StringBuilder agregarRendimiento(StringBuilder sb, long bytes, long nanos) {
+        return sb.append(",\"millis\":").append(String.format(Locale.ROOT, "%.3f", nanos / 1e6))
+            .append(",\"mbPerSecond\":").append(String.format(Locale.ROOT, "%.2f", megabytesPorSegundo(bytes, nanos)));
+    }
+    
+    private static double megabytesPorSegundo(long bytes, long nanos) {
+        return nanos == 0 ? 0 : bytes / 1e6 / (nanos / 1e9);
+    }
+    
+    // La salida es compartida: cada bloque (de líneas completas) se escribe entero
+    private void escribir(CharSequence bloque) {
+        synchronized (this) {
+            try {
+                salida.append(bloque);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+    
+    // Cadena JSON con comillas y los caracteres especiales escapados
+    private static String json(String texto) {
+        StringBuilder sb = new StringBuilder(texto.length() + 2).append('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -4,6 +4,11 @@ import gui.LexerGUI;
 
 public class Main {
     public static void main(String[] args) {
+        // Con argumentos se analiza por línea de comandos, sin cargar Swing
+        if (args.length > 0) {
+            System.exit(LexerCLI.run(args));
+        }
+        
         // Este método asegura que la interfaz gráfica se cree en el hilo correcto
         javax.swing.SwingUtilities.invokeLater(new Runnable() {
             public void run() {
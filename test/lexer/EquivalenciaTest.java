@@ -0,0 +1,118 @@
+package lexer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+// El análisis paralelo y el incremental prometen el mismo resultado que el
+// análisis secuencial. Estas pruebas lo comparan sobre textos al azar (con semilla
+// fija) pensados para cortar comentarios de bloque, cadenas y líneas en cualquier
+// punto, y sobre algunos casos límite escritos a mano.
+class EquivalenciaTest {
+    // Alfabeto con muchos saltos, comillas y piezas de comentario para que los
+    // cortes y las ediciones caigan seguido en los bordes de esos tokens
+    private static final String ALFABETO = "ab0 \t\n\n\n\"\"/*/**+-.;|@中";
+    
+    private static final String[] CASOS_LIMITE = {
+        "",
+        "   \n\t\n",
+        "x = 1;\n/* a\nb **/ y\nz",
+        "/** doc **/\nsi x\n",
+        "/***/ c\n/****/ d\n",
+        "/* sin cerrar\n a\n b",
+        "\"cadena\nsin cerrar\" x\n",
+        "x = 1 // a | b\n/* x || y */ z\n",
+        "a\n/*\n*\n/\n*/\nb",
+    };
+    
+    private static ForkJoinPool pool;
+    
+    @BeforeAll
+    static void crearPool() {
+        pool = new ForkJoinPool(4);
+    }
+    
+    @AfterAll
+    static void cerrarPool() {
+        pool.shutdown();
+    }
+    
+    @Test
+    void paraleloIgualASecuencial() {
+        for (String texto : CASOS_LIMITE) {
+            for (int bloque = 1; bloque <= 8; bloque++) {
+                compararParalelo(texto, bloque);
+            }
+        }
+        
+        Random azar = new Random(20251018L);
+        for (int i = 0; i < 1500; i++) {
+            compararParalelo(textoAlAzar(azar, azar.nextInt(400)), 1 + azar.nextInt(20));
+        }
+    }
+    
+    @Test
+    void incrementalIgualAAnalisisCompleto() {
+        Random azar = new Random(20251019L);
+        for (int i = 0; i < 1500; i++) {
+            StringBuilder texto = new StringBuilder(i < CASOS_LIMITE.length
+                ? CASOS_LIMITE[i]
+                : textoAlAzar(azar, azar.nextInt(300)));
+            IncrementalLexer incremental = new IncrementalLexer();
+            incremental.analyze(texto.toString());
+            
+            for (int ronda = 0; ronda < 4; ronda++) {
+                // Varias ediciones se acumulan antes de actualizar
+                int ediciones = 1 + azar.nextInt(3);
+                for (int e = 0; e < ediciones; e++) {
+                    int offset = azar.nextInt(texto.length() + 1);
+                    int quitados = Math.min(texto.length() - offset, azar.nextInt(4));
+                    String insertado = textoAlAzar(azar, azar.nextInt(4));
+                    texto.replace(offset, offset + quitados, insertado);
+                    incremental.textChanged(offset, quitados, insertado.length());
+                }
+                
+                String actual = texto.toString();
+                incremental.update(actual);
+                Lexer completo = new Lexer();
+                completo.setTraceLevel(TraceLevel.OFF);
+                completo.analyze(actual);
+                assertEquals(volcar(completo.getTokenBuffer()), volcar(incremental.getTokenBuffer()),
+                    () -> "Texto: " + actual);
+            }
+        }
+    }
+    
+    private static void compararParalelo(String texto, int tamanoBloque) {
+        Lexer secuencial = new Lexer();
+        secuencial.analyze(texto);
+        Lexer paralelo = new Lexer();
+        paralelo.analyzeParallel(texto, pool, tamanoBloque);
+        assertEquals(secuencial.getResults(), paralelo.getResults(),
+            () -> "Bloques de " + tamanoBloque + ", texto: " + texto);
+    }
+    
+    private static String textoAlAzar(Random azar, int longitud) {
+        StringBuilder texto = new StringBuilder(longitud);
+        for (int i = 0; i < longitud; i++) {
+            texto.append(ALFABETO.charAt(azar.nextInt(ALFABETO.length())));
+        }
+        return texto.toString();
+    }
+    
+    // Todo lo que describe a cada token, una línea por token
+    static String volcar(TokenBuffer tokens) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < tokens.size(); i++) {
+            sb.append(tokens.getType(i)).append(' ')
+                .append(tokens.getOffset(i)).append(' ')
+                .append(tokens.getRow(i)).append(':').append(tokens.getColumn(i)).append(' ')
+                .append(tokens.getLexeme(i)).append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,41 @@
+package lexer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+// Casos puntuales del análisis secuencial que ya fallaron alguna vez
+class LexerTest {
+    
+    @Test
+    void comentarioQueTerminaEnVariosAsteriscos() {
+        assertEquals("COMENTARIO_BLOQUE '/** x **/'\nIDENTIFICADOR 'y'\n", tipos("/** x **/ y"));
+        assertEquals("COMENTARIO_BLOQUE '/***/'\nIDENTIFICADOR 'c'\n", tipos("/***/ c"));
+        assertEquals("COMENTARIO_BLOQUE '/****/'\nIDENTIFICADOR 'd'\n", tipos("/****/ d"));
+    }
+    
+    @Test
+    void recuentoDeLexemasConBarraVertical() {
+        Lexer lexer = new Lexer();
+        lexer.analyze("x = 1 // a | b\n/* x || y */ z");
+        Map<Map.Entry<String, TokenType>, Integer> conteo = lexer.getLexemeCount();
+        assertEquals(1, conteo.get(new AbstractMap.SimpleImmutableEntry<>("// a | b", TokenType.COMENTARIO_LINEA)));
+        assertEquals(1, conteo.get(new AbstractMap.SimpleImmutableEntry<>("/* x || y */", TokenType.COMENTARIO_BLOQUE)));
+        // El reporte completo no debe fallar al recorrer el recuento
+        lexer.getResults();
+    }
+    
+    private static String tipos(String texto) {
+        Lexer lexer = new Lexer();
+        lexer.setTraceLevel(TraceLevel.OFF);
+        lexer.analyze(texto);
+        TokenBuffer tokens = lexer.getTokenBuffer();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < tokens.size(); i++) {
+            sb.append(tokens.getType(i)).append(" '").append(tokens.getLexeme(i)).append("'\n");
+        }
+        return sb.toString();
+    }
+}